@@ -0,0 +1,25 @@
+package com.BlackstoneeIT.account_events;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by the customer service on {@code account-creation-requests}. Field numbers on
+ * the wire are assigned in {@link AccountEventCodec}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountCreationEvent {
+    private Long customerId;
+    private String customerType; // CustomerType name
+    @JsonAlias("type") // Older customer-service JSON named it "type"
+    private String accountType; // SAVING, SALARY, INVESTMENT
+    private BigDecimal initialBalance;
+    private String requestId; // For tracking the request
+    private Long timestamp;
+}
@@ -0,0 +1,13 @@
+package com.BlackstoneeIT.account_events;
+
+public class AccountCreationEventDeserializer extends AccountEventDeserializer<AccountCreationEvent> {
+
+    public AccountCreationEventDeserializer() {
+        super(AccountCreationEvent.class);
+    }
+
+    @Override
+    protected AccountCreationEvent decode(byte[] data) {
+        return AccountEventCodec.decodeEvent(data);
+    }
+}
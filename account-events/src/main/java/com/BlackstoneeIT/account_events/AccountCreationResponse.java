@@ -1,9 +1,13 @@
-package com.BlackstoneeIT.account_management_service.dto;
+package com.BlackstoneeIT.account_events;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Published by the account service on the requester's reply topic
+ * ({@code account-creation-responses} by default).
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,4 +37,4 @@ public class AccountCreationResponse {
                 requestId, null, customerId, "FAILED", message, "TECHNICAL_ERROR", System.currentTimeMillis()
         );
     }
-}
\ No newline at end of file
+}
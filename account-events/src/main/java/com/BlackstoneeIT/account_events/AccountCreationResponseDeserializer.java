@@ -0,0 +1,13 @@
+package com.BlackstoneeIT.account_events;
+
+public class AccountCreationResponseDeserializer extends AccountEventDeserializer<AccountCreationResponse> {
+
+    public AccountCreationResponseDeserializer() {
+        super(AccountCreationResponse.class);
+    }
+
+    @Override
+    protected AccountCreationResponse decode(byte[] data) {
+        return AccountEventCodec.decodeResponse(data);
+    }
+}
@@ -0,0 +1,313 @@
+package com.BlackstoneeIT.account_events;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Binary wire format of the account creation messages.
+ *
+ * <pre>
+ * magic (0xAE) | format version | message kind | field*
+ * field = varint key (field number &lt;&lt; 3 | wire type), then the value:
+ *   wire type 0  zig-zag varint                          Long
+ *   wire type 2  varint length + bytes                   String (UTF-8),
+ *                                                        BigDecimal (zig-zag scale + unscaled two's complement)
+ * </pre>
+ *
+ * Null fields are simply not written. Schema evolution rules:
+ * <ul>
+ *   <li>A new field takes a new field number and must be optional: readers skip numbers they
+ *       do not know, and treat a missing field as {@code null}.</li>
+ *   <li>A field number is never reused or given another wire type. When a field is removed
+ *       its number stays reserved here.</li>
+ *   <li>{@link #FORMAT_VERSION} only changes with the framing itself; readers reject versions
+ *       newer than their own, so upgrade consumers before producers.</li>
+ * </ul>
+ * The magic byte cannot start a JSON document, which lets the deserializers still read
+ * records written as JSON before this format.
+ */
+public final class AccountEventCodec {
+
+    public static final byte MAGIC = (byte) 0xAE;
+    public static final byte FORMAT_VERSION = 1;
+
+    static final byte KIND_EVENT = 1;
+    static final byte KIND_RESPONSE = 2;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+    private static final int FIXED32 = 5;
+
+    // AccountCreationEvent field numbers
+    private static final int EVENT_CUSTOMER_ID = 1;
+    private static final int EVENT_CUSTOMER_TYPE = 2;
+    private static final int EVENT_ACCOUNT_TYPE = 3;
+    private static final int EVENT_INITIAL_BALANCE = 4;
+    private static final int EVENT_REQUEST_ID = 5;
+    private static final int EVENT_TIMESTAMP = 6;
+
+    // AccountCreationResponse field numbers
+    private static final int RESPONSE_REQUEST_ID = 1;
+    private static final int RESPONSE_ACCOUNT_ID = 2;
+    private static final int RESPONSE_CUSTOMER_ID = 3;
+    private static final int RESPONSE_STATUS = 4;
+    private static final int RESPONSE_MESSAGE = 5;
+    private static final int RESPONSE_ERROR_CODE = 6;
+    private static final int RESPONSE_TIMESTAMP = 7;
+
+    private AccountEventCodec() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(AccountCreationEvent event) {
+        Writer out = new Writer(KIND_EVENT);
+        out.writeLong(EVENT_CUSTOMER_ID, event.getCustomerId());
+        out.writeString(EVENT_CUSTOMER_TYPE, event.getCustomerType());
+        out.writeString(EVENT_ACCOUNT_TYPE, event.getAccountType());
+        out.writeDecimal(EVENT_INITIAL_BALANCE, event.getInitialBalance());
+        out.writeString(EVENT_REQUEST_ID, event.getRequestId());
+        out.writeLong(EVENT_TIMESTAMP, event.getTimestamp());
+        return out.toByteArray();
+    }
+
+    public static byte[] encode(AccountCreationResponse response) {
+        Writer out = new Writer(KIND_RESPONSE);
+        out.writeString(RESPONSE_REQUEST_ID, response.getRequestId());
+        out.writeLong(RESPONSE_ACCOUNT_ID, response.getAccountId());
+        out.writeLong(RESPONSE_CUSTOMER_ID, response.getCustomerId());
+        out.writeString(RESPONSE_STATUS, response.getStatus());
+        out.writeString(RESPONSE_MESSAGE, response.getMessage());
+        out.writeString(RESPONSE_ERROR_CODE, response.getErrorCode());
+        out.writeLong(RESPONSE_TIMESTAMP, response.getTimestamp());
+        return out.toByteArray();
+    }
+
+    public static AccountCreationEvent decodeEvent(byte[] data) {
+        Reader in = new Reader(data, KIND_EVENT);
+        AccountCreationEvent event = new AccountCreationEvent();
+        while (in.hasMore()) {
+            int key = in.readKey();
+            switch (key >>> 3) {
+                case EVENT_CUSTOMER_ID -> event.setCustomerId(in.readLong(key));
+                case EVENT_CUSTOMER_TYPE -> event.setCustomerType(in.readString(key));
+                case EVENT_ACCOUNT_TYPE -> event.setAccountType(in.readString(key));
+                case EVENT_INITIAL_BALANCE -> event.setInitialBalance(in.readDecimal(key));
+                case EVENT_REQUEST_ID -> event.setRequestId(in.readString(key));
+                case EVENT_TIMESTAMP -> event.setTimestamp(in.readLong(key));
+                default -> in.skip(key);
+            }
+        }
+        return event;
+    }
+
+    public static AccountCreationResponse decodeResponse(byte[] data) {
+        Reader in = new Reader(data, KIND_RESPONSE);
+        AccountCreationResponse response = new AccountCreationResponse();
+        while (in.hasMore()) {
+            int key = in.readKey();
+            switch (key >>> 3) {
+                case RESPONSE_REQUEST_ID -> response.setRequestId(in.readString(key));
+                case RESPONSE_ACCOUNT_ID -> response.setAccountId(in.readLong(key));
+                case RESPONSE_CUSTOMER_ID -> response.setCustomerId(in.readLong(key));
+                case RESPONSE_STATUS -> response.setStatus(in.readString(key));
+                case RESPONSE_MESSAGE -> response.setMessage(in.readString(key));
+                case RESPONSE_ERROR_CODE -> response.setErrorCode(in.readString(key));
+                case RESPONSE_TIMESTAMP -> response.setTimestamp(in.readLong(key));
+                default -> in.skip(key);
+            }
+        }
+        return response;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int varintSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+        private byte[] buffer = new byte[96];
+        private int position;
+
+        Writer(byte kind) {
+            buffer[position++] = MAGIC;
+            buffer[position++] = FORMAT_VERSION;
+            buffer[position++] = kind;
+        }
+
+        void writeLong(int field, Long value) {
+            if (value == null) return;
+            writeVarint((long) field << 3 | VARINT);
+            writeVarint(zigZag(value));
+        }
+
+        void writeString(int field, String value) {
+            if (value == null) return;
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint((long) field << 3 | LENGTH_DELIMITED);
+            writeVarint(bytes.length);
+            writeBytes(bytes);
+        }
+
+        void writeDecimal(int field, BigDecimal value) {
+            if (value == null) return;
+            long scale = zigZag(value.scale());
+            byte[] unscaled = value.unscaledValue().toByteArray();
+            writeVarint((long) field << 3 | LENGTH_DELIMITED);
+            writeVarint(varintSize(scale) + unscaled.length);
+            writeVarint(scale);
+            writeBytes(unscaled);
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, byte kind) {
+            if (data.length < HEADER_LENGTH || data[0] != MAGIC) {
+                throw new SerializationException("Not an account event record");
+            }
+            if (data[1] > FORMAT_VERSION || data[1] < 1) {
+                throw new SerializationException("Unsupported account event format version: " + data[1]);
+            }
+            if (data[2] != kind) {
+                throw new SerializationException("Unexpected account event kind: " + data[2]);
+            }
+            this.data = data;
+            this.position = HEADER_LENGTH;
+        }
+
+        boolean hasMore() {
+            return position < data.length;
+        }
+
+        int readKey() {
+            long key = readVarint();
+            if (key > Integer.MAX_VALUE) {
+                throw new SerializationException("Malformed account event field key");
+            }
+            return (int) key;
+        }
+
+        Long readLong(int key) {
+            expect(key, VARINT);
+            return unZigZag(readVarint());
+        }
+
+        String readString(int key) {
+            expect(key, LENGTH_DELIMITED);
+            int length = readLength();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        BigDecimal readDecimal(int key) {
+            expect(key, LENGTH_DELIMITED);
+            int end = readLength() + position;
+            int scale = (int) unZigZag(readVarint());
+            if (position >= end) {
+                throw new SerializationException("Malformed decimal in account event");
+            }
+            BigInteger unscaled = new BigInteger(data, position, end - position);
+            position = end;
+            return new BigDecimal(unscaled, scale);
+        }
+
+        // Fields added by newer writers
+        void skip(int key) {
+            switch (key & 0x7) {
+                case VARINT -> readVarint();
+                case FIXED64 -> advance(8);
+                case LENGTH_DELIMITED -> advance(readLength());
+                case FIXED32 -> advance(4);
+                default -> throw new SerializationException("Unknown wire type " + (key & 0x7)
+                        + " for account event field " + (key >>> 3));
+            }
+        }
+
+        private void expect(int key, int wireType) {
+            if ((key & 0x7) != wireType) {
+                throw new SerializationException("Account event field " + (key >>> 3)
+                        + " has wire type " + (key & 0x7) + ", expected " + wireType);
+            }
+        }
+
+        private long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new SerializationException("Truncated account event record");
+                }
+                byte b = data[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("Malformed varint in account event record");
+        }
+
+        private int readLength() {
+            long length = readVarint();
+            if (length > data.length - position) {
+                throw new SerializationException("Truncated account event record");
+            }
+            return (int) length;
+        }
+
+        private void advance(int length) {
+            if (length > data.length - position) {
+                throw new SerializationException("Truncated account event record");
+            }
+            position += length;
+        }
+    }
+}
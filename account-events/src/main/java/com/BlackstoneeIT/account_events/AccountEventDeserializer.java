@@ -0,0 +1,41 @@
+package com.BlackstoneeIT.account_events;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads one account event type in the {@link AccountEventCodec} format, falling back to
+ * JSON for records written before it.
+ */
+public abstract class AccountEventDeserializer<T> implements Deserializer<T> {
+
+    private static final ObjectMapper LEGACY_JSON = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final Class<T> type;
+
+    protected AccountEventDeserializer(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (AccountEventCodec.isBinary(data)) {
+            return decode(data);
+        }
+        try {
+            return LEGACY_JSON.readValue(data, type);
+        } catch (IOException e) {
+            throw new SerializationException("Can't deserialize " + type.getSimpleName() + " from " + topic, e);
+        }
+    }
+
+    protected abstract T decode(byte[] data);
+}
@@ -0,0 +1,48 @@
+package com.BlackstoneeIT.account_events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Writes {@link AccountCreationEvent} and {@link AccountCreationResponse} in the
+ * {@link AccountEventCodec} format. Setting {@code account.events.wire-format=json} keeps
+ * producing JSON while consumers still run a JSON deserializer.
+ */
+public class AccountEventSerializer implements Serializer<Object> {
+
+    public static final String WIRE_FORMAT_CONFIG = "account.events.wire-format";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private boolean json;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        Object format = configs.get(WIRE_FORMAT_CONFIG);
+        json = format != null && "json".equalsIgnoreCase(format.toString().trim());
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        if (json) {
+            try {
+                return objectMapper.writeValueAsBytes(data);
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Can't serialize account event as JSON", e);
+            }
+        }
+        if (data instanceof AccountCreationEvent event) {
+            return AccountEventCodec.encode(event);
+        }
+        if (data instanceof AccountCreationResponse response) {
+            return AccountEventCodec.encode(response);
+        }
+        throw new SerializationException("Not an account event: " + data.getClass().getName());
+    }
+}
@@ -0,0 +1,93 @@
+package com.BlackstoneeIT.account_events;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountEventCodecTest {
+
+    private final AccountEventSerializer serializer = new AccountEventSerializer();
+    private final AccountCreationEventDeserializer eventDeserializer = new AccountCreationEventDeserializer();
+    private final AccountCreationResponseDeserializer responseDeserializer = new AccountCreationResponseDeserializer();
+
+    @Test
+    void eventRoundTrip() {
+        AccountCreationEvent event = new AccountCreationEvent(1000042L, "RETAIL", "SAVING",
+                new BigDecimal("-12345678901234567890.0042"), "req-1", 1_760_000_000_000L);
+
+        byte[] bytes = serializer.serialize("account-creation-requests", event);
+
+        assertEquals(AccountEventCodec.MAGIC, bytes[0]);
+        assertEquals(event, eventDeserializer.deserialize("account-creation-requests", bytes));
+    }
+
+    @Test
+    void responseRoundTripWithNullFields() {
+        AccountCreationResponse response = AccountCreationResponse.validationFailed("req-1", 1000042L, "Ünsupported");
+
+        byte[] bytes = serializer.serialize("account-creation-responses", response);
+
+        AccountCreationResponse decoded = responseDeserializer.deserialize("account-creation-responses", bytes);
+        assertEquals(response, decoded);
+        assertNull(decoded.getAccountId());
+    }
+
+    @Test
+    void unknownFieldsFromNewerWritersAreSkipped() {
+        byte[] current = AccountEventCodec.encode(AccountCreationResponse.success("req-1", 1000042001L, 1000042L));
+        ByteArrayOutputStream newer = new ByteArrayOutputStream();
+        newer.writeBytes(current);
+        newer.write(14 << 3);          // field 14, varint
+        newer.write(0x2A);
+        newer.write(15 << 3 | 2);      // field 15, length-delimited
+        newer.write(3);
+        newer.writeBytes("new".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(AccountEventCodec.decodeResponse(current), AccountEventCodec.decodeResponse(newer.toByteArray()));
+    }
+
+    @Test
+    void legacyJsonIsStillRead() {
+        // Shape the customer service published before the shared module ("type", enum name)
+        String json = "{\"customerId\":1000042,\"customerType\":\"RETAIL\",\"type\":\"SAVING\","
+                + "\"initialBalance\":100.50,\"requestId\":\"req-1\",\"timestamp\":1760000000000}";
+
+        AccountCreationEvent event = eventDeserializer.deserialize("account-creation-requests",
+                json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("SAVING", event.getAccountType());
+        assertEquals(new BigDecimal("100.50"), event.getInitialBalance());
+    }
+
+    @Test
+    void jsonWireFormatCanBeSelected() {
+        serializer.configure(Map.of(AccountEventSerializer.WIRE_FORMAT_CONFIG, "json"), false);
+
+        byte[] bytes = serializer.serialize("account-creation-responses",
+                AccountCreationResponse.failed("req-1", 1000042L, "down"));
+
+        assertEquals('{', bytes[0]);
+        assertEquals("down", responseDeserializer.deserialize("account-creation-responses", bytes).getMessage());
+    }
+
+    @Test
+    void newerFormatVersionAndWrongKindAreRejected() {
+        byte[] event = AccountEventCodec.encode(new AccountCreationEvent());
+        assertThrows(SerializationException.class, () -> AccountEventCodec.decodeResponse(event));
+
+        byte[] future = event.clone();
+        future[1] = AccountEventCodec.FORMAT_VERSION + 1;
+        assertThrows(SerializationException.class, () -> AccountEventCodec.decodeEvent(future));
+
+        assertArrayEquals(new byte[]{AccountEventCodec.MAGIC, AccountEventCodec.FORMAT_VERSION, 1}, event);
+    }
+}
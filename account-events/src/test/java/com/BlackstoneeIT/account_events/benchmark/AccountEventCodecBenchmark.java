@@ -0,0 +1,109 @@
+package com.BlackstoneeIT.account_events.benchmark;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.BlackstoneeIT.account_events.AccountEventCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ns/msg of the binary codec against Jackson, which is what {@code JsonSerializer} and
+ * {@code JsonDeserializer} did per record. Bytes/msg of both formats are printed at setup.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.BlackstoneeIT.account_events.benchmark.AccountEventCodecBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AccountEventCodecBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private AccountCreationEvent event;
+    private AccountCreationResponse response;
+    private byte[] eventJson;
+    private byte[] eventBinary;
+    private byte[] responseJson;
+    private byte[] responseBinary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        event = new AccountCreationEvent(1000042L, "RETAIL", "SAVING", new BigDecimal("2500.00"),
+                "0190f3a2-7c41-7d2e-9b3a-5f1e2d3c4b5a", 1_760_000_000_000L);
+        response = AccountCreationResponse.success("0190f3a2-7c41-7d2e-9b3a-5f1e2d3c4b5a", 1000042001L, 1000042L);
+        eventJson = objectMapper.writeValueAsBytes(event);
+        eventBinary = AccountEventCodec.encode(event);
+        responseJson = objectMapper.writeValueAsBytes(response);
+        responseBinary = AccountEventCodec.encode(response);
+        System.out.printf("%nbytes/msg  event: json=%d binary=%d  response: json=%d binary=%d%n",
+                eventJson.length, eventBinary.length, responseJson.length, responseBinary.length);
+    }
+
+    @Benchmark
+    public byte[] eventJsonSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] eventBinarySerialize() {
+        return AccountEventCodec.encode(event);
+    }
+
+    @Benchmark
+    public AccountCreationEvent eventJsonDeserialize() throws Exception {
+        return objectMapper.readValue(eventJson, AccountCreationEvent.class);
+    }
+
+    @Benchmark
+    public AccountCreationEvent eventBinaryDeserialize() {
+        return AccountEventCodec.decodeEvent(eventBinary);
+    }
+
+    @Benchmark
+    public byte[] responseJsonSerialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] responseBinarySerialize() {
+        return AccountEventCodec.encode(response);
+    }
+
+    @Benchmark
+    public AccountCreationResponse responseJsonDeserialize() throws Exception {
+        return objectMapper.readValue(responseJson, AccountCreationResponse.class);
+    }
+
+    @Benchmark
+    public AccountCreationResponse responseBinaryDeserialize() {
+        return AccountEventCodec.decodeResponse(responseBinary);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AccountEventCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
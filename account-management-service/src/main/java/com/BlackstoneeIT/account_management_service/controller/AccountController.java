@@ -20,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import java.util.Collections;
@@ -75,21 +76,28 @@ public class AccountController {
     @GetMapping(value = "/customer/{customerId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<List<AccountResponse>> getAccountsByCustomerId(
             @Parameter(description = "Customer ID must be a positive number", example = "1000001")
-            @PathVariable @Min(1) Long customerId) {
+            @PathVariable @Min(1) Long customerId,
+            @Parameter(hidden = true) WebRequest webRequest) {
 
 
         log.info("Fetching accounts for customer ID: {}", customerId);
 
         try {
+            // Answer If-None-Match from a version query, before any account is loaded
+            String version = accountService.getAccountsVersion(customerId);
+            if (version != null && webRequest.checkNotModified(version)) {
+                return null;
+            }
+
             List<AccountResponse> accounts = accountService.getAccountsByCustomerId(customerId);
 
             if (accounts.isEmpty()) {
                 log.info("No accounts found for customer ID: {}", customerId);
-                return ResponseEntity.ok(Collections.emptyList());
+                return withETag(ResponseEntity.ok(), version).body(Collections.emptyList());
             }
 
             log.info("Found {} accounts for customer ID: {}", accounts.size(), customerId);
-            return ResponseEntity.ok(accounts);
+            return withETag(ResponseEntity.ok(), version).body(accounts);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid request for customer ID: {} - {}", customerId, e.getMessage());
@@ -147,9 +155,14 @@ public class AccountController {
     @GetMapping("/{accountId}/customer/{customerId}")
     public ResponseEntity<AccountResponse> getAccountById(
             @PathVariable Long accountId,
-            @PathVariable Long customerId) {
+            @PathVariable Long customerId,
+            @Parameter(hidden = true) WebRequest webRequest) {
+        String version = accountService.getAccountVersion(accountId, customerId).orElse(null);
+        if (version != null && webRequest.checkNotModified(version)) {
+            return null;
+        }
         AccountResponse account = accountService.getAccountById(accountId, customerId);
-        return ResponseEntity.ok(account);
+        return withETag(ResponseEntity.ok(), version).body(account);
     }
 
     @Operation(
@@ -299,4 +312,8 @@ public class AccountController {
         accountService.deleteAccount(accountId, customerId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String version) {
+        return version != null ? builder.eTag(version) : builder;
+    }
+}
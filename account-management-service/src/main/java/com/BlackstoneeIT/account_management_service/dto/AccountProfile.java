@@ -0,0 +1,43 @@
+package com.BlackstoneeIT.account_management_service.dto;
+
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * What account validation needs to know about one customer's accounts, so a request can be
+ * checked in memory instead of with a query per rule.
+ */
+public class AccountProfile {
+
+    private final Long customerId;
+    private final Map<AccountType, Integer> countsByType = new EnumMap<>(AccountType.class);
+    private int accountCount;
+
+    public AccountProfile(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public void apply(AccountRepository.AccountTypeSummary summary) {
+        countsByType.merge(summary.getType(), (int) summary.getCount(), Integer::sum);
+        accountCount += (int) summary.getCount();
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public int getAccountCount() {
+        return accountCount;
+    }
+
+    public int countOf(AccountType type) {
+        return countsByType.getOrDefault(type, 0);
+    }
+
+    public boolean hasSalaryAccount() {
+        return countOf(AccountType.SALARY) > 0;
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -15,7 +16,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Account {
+public class Account implements Persistable<Long> {
 
 
     @Id
@@ -49,6 +50,20 @@ public class Account {
     @Column(name = "updated_date")
     private LocalDateTime updatedDate;
 
+    // Kafka request the account was created for; null for accounts opened through the API
+    @Column(name = "request_id")
+    private String requestId;
+
+    // Account ids are assigned by us, so tell Spring Data to INSERT instead of merge-with-SELECT
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdDate = LocalDateTime.now();
@@ -81,4 +96,10 @@ public class Account {
     protected void onUpdate() {
         updatedDate = LocalDateTime.now();
     }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
 }
\ No newline at end of file
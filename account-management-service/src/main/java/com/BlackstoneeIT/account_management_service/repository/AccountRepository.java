@@ -3,9 +3,12 @@ package com.BlackstoneeIT.account_management_service.repository;
 import com.BlackstoneeIT.account_management_service.entity.Account;
 import com.BlackstoneeIT.account_management_service.enums.AccountType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,15 +23,100 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByIdAndCustomerId(Long id, Long customerId);
 
+    // Accounts already created for redelivered requests
+    Optional<Account> findByRequestId(String requestId);
+
+    List<Account> findByRequestIdIn(Collection<String> requestIds);
+
+    // Cheap version probes for conditional GETs: no entity is loaded or hydrated
+    @Query("SELECT a.updatedDate FROM Account a WHERE a.id = :id AND a.customerId = :customerId")
+    Optional<LocalDateTime> findUpdatedDateByIdAndCustomerId(@Param("id") Long id, @Param("customerId") Long customerId);
+
+    // Count and id sum change on create/delete, the latest updated_date on any update
+    @Query("SELECT COUNT(a) AS count, COALESCE(SUM(a.id), 0) AS idSum, MAX(a.updatedDate) AS lastUpdated " +
+            "FROM Account a WHERE a.customerId = :customerId")
+    AccountListVersion findAccountListVersionByCustomerId(@Param("customerId") Long customerId);
+
+    interface AccountListVersion {
+        long getCount();
+
+        long getIdSum();
+
+        LocalDateTime getLastUpdated();
+    }
+
+    // Everything validation and id allocation need for many customers, in one grouped scan of the customer_id index
+    @Query("SELECT a.customerId AS customerId, a.type AS type, COUNT(a) AS count " +
+            "FROM Account a WHERE a.customerId IN :customerIds GROUP BY a.customerId, a.type")
+    List<AccountTypeSummary> summarizeByCustomerIds(@Param("customerIds") Collection<Long> customerIds);
+
+    interface AccountTypeSummary {
+        Long getCustomerId();
+
+        AccountType getType();
+
+        long getCount();
+    }
+
     @Query("SELECT a FROM Account a WHERE a.customerId = :customerId AND a.type = 'SALARY'")
     Optional<Account> findSalaryAccountByCustomerId(@Param("customerId") Long customerId);
 
     @Query("SELECT COUNT(a) FROM Account a WHERE a.customerId = :customerId AND a.type = 'INVESTMENT'")
     long countInvestmentAccountsByCustomerId(@Param("customerId") Long customerId);
-    // Check if account ID exists
-    boolean existsById(Long accountId);
 
-    // Find maximum account ID for a customer (for sequential generation)
-    @Query("SELECT MAX(a.id) FROM Account a WHERE a.customerId = :customerId")
-    Optional<Long> findMaxAccountIdByCustomerId(@Param("customerId") Long customerId);
-}
\ No newline at end of file
+    // One round trip: take the lowest released number, else bump the counter, and count the account.
+    // The upsert row lock serializes allocations per customer; no row comes back when the account
+    // limit, the one-SALARY rule or the 999 numbers would be exceeded. A new customer's row is
+    // inserted with the increments themselves, which EXCLUDED then carries into the update
+    @Query(value = "WITH free AS (" +
+            "  SELECT account_number FROM account_db.customer_account_free_numbers " +
+            "  WHERE customer_id = :customerId ORDER BY account_number LIMIT 1 FOR UPDATE SKIP LOCKED), " +
+            "slot AS (" +
+            "  INSERT INTO account_db.customer_account_seq (customer_id, last_number, account_count, salary_count) " +
+            "  SELECT :customerId, CASE WHEN EXISTS (SELECT 1 FROM free) THEN 0 ELSE 1 END, 1, :salaryCount " +
+            "  ON CONFLICT (customer_id) DO UPDATE SET " +
+            "    last_number = customer_account_seq.last_number + EXCLUDED.last_number, " +
+            "    account_count = customer_account_seq.account_count + 1, " +
+            "    salary_count = customer_account_seq.salary_count + EXCLUDED.salary_count " +
+            "  WHERE customer_account_seq.account_count < :maxAccounts " +
+            "    AND (customer_account_seq.salary_count = 0 OR EXCLUDED.salary_count = 0) " +
+            "    AND customer_account_seq.last_number + EXCLUDED.last_number <= 999 " +
+            "  RETURNING last_number), " +
+            "reused AS (" +
+            "  DELETE FROM account_db.customer_account_free_numbers " +
+            "  WHERE customer_id = :customerId AND account_number = (SELECT account_number FROM free) " +
+            "    AND EXISTS (SELECT 1 FROM slot) " +
+            "  RETURNING account_number) " +
+            "SELECT COALESCE((SELECT account_number FROM reused), last_number) FROM slot",
+            nativeQuery = true)
+    Optional<Integer> allocateAccountNumber(@Param("customerId") Long customerId,
+                                            @Param("salaryCount") int salaryCount,
+                                            @Param("maxAccounts") int maxAccounts);
+
+    // Uncounts the account and frees its number; legacy numbers outside 1..999 are not reused
+    @Modifying
+    @Query(value = "WITH counted AS (" +
+            "  UPDATE account_db.customer_account_seq " +
+            "  SET account_count = account_count - 1, salary_count = salary_count - :salaryCount " +
+            "  WHERE customer_id = :customerId AND account_count > 0 AND salary_count >= :salaryCount " +
+            "  RETURNING customer_id) " +
+            "INSERT INTO account_db.customer_account_free_numbers (customer_id, account_number) " +
+            "SELECT :customerId, :accountNumber WHERE :accountNumber BETWEEN 1 AND 999 " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int releaseAccountNumber(@Param("customerId") Long customerId,
+                             @Param("accountNumber") int accountNumber,
+                             @Param("salaryCount") int salaryCount);
+
+    // Only read to explain a refused allocation
+    @Query(value = "SELECT account_count AS accountCount, salary_count AS salaryCount " +
+            "FROM account_db.customer_account_seq WHERE customer_id = :customerId",
+            nativeQuery = true)
+    Optional<AccountCounts> findAccountCounts(@Param("customerId") Long customerId);
+
+    interface AccountCounts {
+        int getAccountCount();
+
+        int getSalaryCount();
+    }
+}
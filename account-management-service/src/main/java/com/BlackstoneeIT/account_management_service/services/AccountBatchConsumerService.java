@@ -0,0 +1,187 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.account_management_service.entity.Account;
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Batch variant of {@link KafkaConsumerService}, used with {@code kafka.consumer.mode=batch}.
+ * A whole poll is validated against cached account profiles (customers not cached are loaded
+ * with one grouped query up front), the new accounts are inserted with one JDBC-batched {@code saveAll},
+ * and the responses are sent pipelined. The container commits the poll's offsets only once this
+ * returns, i.e. after the accounts are committed and the responses acknowledged. When a response
+ * is not acknowledged the listener throws and the poll is redelivered; requests that already
+ * have an account are then answered with it instead of being created again.
+ */
+@Service
+@Slf4j
+public class AccountBatchConsumerService {
+
+    private final AccountRepository accountRepository;
+    private final AccountValidationService validationService;
+    private final KafkaConsumerService kafkaConsumerService;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountProfileCache accountProfileCache;
+    private final TransactionTemplate transactionTemplate;
+    private final long sendTimeoutMs;
+
+    public AccountBatchConsumerService(
+            AccountRepository accountRepository,
+            AccountValidationService validationService,
+            KafkaConsumerService kafkaConsumerService,
+            AccountNumberAllocator accountNumberAllocator,
+            AccountProfileCache accountProfileCache,
+            PlatformTransactionManager transactionManager,
+            @Value("${kafka.consumer.batch.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.accountRepository = accountRepository;
+        this.validationService = validationService;
+        this.kafkaConsumerService = kafkaConsumerService;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.accountProfileCache = accountProfileCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    @KafkaListener(
+            topics = "${kafka.topics.account-creation-requests}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'batch'}"
+    )
+    public void consumeAccountCreationRequests(List<ConsumerRecord<String, AccountCreationEvent>> records) {
+        log.info("Received {} account creation requests", records.size());
+
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> createAccounts(records));
+        } catch (RuntimeException e) {
+            // One bad row fails the whole insert; redo the poll one transaction per request so only it fails
+            log.warn("Batch of {} account requests failed, retrying one by one: {}", records.size(), e.getMessage());
+            for (ConsumerRecord<String, AccountCreationEvent> record : records) {
+                if (record.value() != null) {
+                    KafkaConsumerService.ReplyTarget replyTarget = KafkaConsumerService.ReplyTarget.of(record);
+                    kafkaConsumerService.consumeAccountCreationRequest(record.value(),
+                            replyTarget.correlationId(), replyTarget.replyTopic());
+                }
+            }
+            return;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(outcomes.size());
+        for (Outcome outcome : outcomes) {
+            sends.add(kafkaConsumerService.sendAccountCreationResponse(
+                    outcome.event(), outcome.replyTarget(), outcome.accountId(), outcome.status(), outcome.message()));
+        }
+        awaitAll(sends);
+    }
+
+    private List<Outcome> createAccounts(List<ConsumerRecord<String, AccountCreationEvent>> records) {
+        preloadProfiles(records);
+        Map<String, Long> createdAccountIds = findCreatedAccountIds(records);
+        List<Account> accounts = new ArrayList<>();
+        List<Outcome> outcomes = new ArrayList<>(records.size());
+
+        // Records are applied in poll order; the allocator counts each account as it is created, so
+        // requests for one customer see each other's accounts although the cache does not yet
+        for (ConsumerRecord<String, AccountCreationEvent> record : records) {
+            AccountCreationEvent event = record.value();
+            if (event == null) {
+                continue;
+            }
+            KafkaConsumerService.ReplyTarget replyTarget = KafkaConsumerService.ReplyTarget.of(record);
+            Long createdAccountId = event.getRequestId() != null ? createdAccountIds.get(event.getRequestId()) : null;
+            if (createdAccountId != null) {
+                // Redelivered: answer with the account created the first time
+                outcomes.add(new Outcome(event, replyTarget, createdAccountId, "SUCCESS", "Account created successfully"));
+                continue;
+            }
+            try {
+                validationService.validateAccountCreation(event.getCustomerId(), event.getCustomerType(),
+                        event.getAccountType(), event.getInitialBalance());
+                long accountId = accountNumberAllocator.allocateAccountId(
+                        event.getCustomerId(), AccountType.valueOf(event.getAccountType()));
+                accountProfileCache.evictOnCommit(event.getCustomerId());
+                accounts.add(KafkaConsumerService.newAccount(event, accountId));
+                if (event.getRequestId() != null) {
+                    createdAccountIds.put(event.getRequestId(), accountId);
+                }
+                outcomes.add(new Outcome(event, replyTarget, accountId, "SUCCESS", "Account created successfully"));
+            } catch (IllegalArgumentException e) {
+                log.warn("Account creation validation failed for customer {}: {}", event.getCustomerId(), e.getMessage());
+                outcomes.add(new Outcome(event, replyTarget, null, "VALIDATION_FAILED", e.getMessage()));
+            } catch (IllegalStateException e) {
+                log.error("Failed to create account for customer: {}", event.getCustomerId(), e);
+                outcomes.add(new Outcome(event, replyTarget, null, "FAILED", "Technical error: " + e.getMessage()));
+            }
+        }
+
+        accountRepository.saveAll(accounts);
+        accountRepository.flush();
+        log.info("Created {} of {} requested accounts", accounts.size(), outcomes.size());
+        return outcomes;
+    }
+
+    private Map<String, Long> findCreatedAccountIds(List<ConsumerRecord<String, AccountCreationEvent>> records) {
+        Set<String> requestIds = new LinkedHashSet<>();
+        for (ConsumerRecord<String, AccountCreationEvent> record : records) {
+            if (record.value() != null) {
+                requestIds.add(record.value().getRequestId());
+            }
+        }
+        requestIds.remove(null);
+        Map<String, Long> accountIds = new HashMap<>();
+        if (!requestIds.isEmpty()) {
+            accountRepository.findByRequestIdIn(requestIds)
+                    .forEach(account -> accountIds.put(account.getRequestId(), account.getId()));
+        }
+        return accountIds;
+    }
+
+    private void preloadProfiles(List<ConsumerRecord<String, AccountCreationEvent>> records) {
+        Set<Long> customerIds = new LinkedHashSet<>();
+        for (ConsumerRecord<String, AccountCreationEvent> record : records) {
+            if (record.value() != null && record.value().getCustomerId() != null) {
+                customerIds.add(record.value().getCustomerId());
+            }
+        }
+        accountProfileCache.getAll(customerIds);
+    }
+
+    private void awaitAll(List<CompletableFuture<?>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending account creation responses", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // Fail the poll so it is redelivered; its accounts are found by request id and not created twice
+            long failed = sends.stream().filter(send -> !send.isDone() || send.isCompletedExceptionally()).count();
+            log.error("{} of {} account creation responses were not acknowledged: {}",
+                    failed, sends.size(), e.getMessage());
+            throw new IllegalStateException(failed + " account creation responses were not acknowledged", e);
+        }
+    }
+
+    private record Outcome(AccountCreationEvent event, KafkaConsumerService.ReplyTarget replyTarget,
+                           Long accountId, String status, String message) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Account ids are the customer id followed by a three-digit account number (001-999). Numbers
+ * come from the per-customer counter in customer_account_seq, and numbers released by deleted
+ * accounts are handed out again first. The same row counts the customer's accounts, so the
+ * 10-account and one-SALARY rules are enforced here under its lock, whatever other instances
+ * or cached profiles believe. Both calls join the caller's transaction, so a rolled back
+ * account creation or deletion leaves the counter, the counts and the free list untouched.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+
+    private static final long NUMBERS_PER_CUSTOMER = 1000L;
+
+    private final AccountRepository accountRepository;
+
+    /**
+     * A refusal changes nothing, so it does not mark the caller's transaction rollback-only;
+     * the consumers answer it and still commit the rest of their work.
+     *
+     * @throws IllegalArgumentException when the customer already has the maximum number of
+     *                                  accounts, or a SALARY account and asks for another
+     * @throws IllegalStateException    once all of the customer's 999 numbers are in use
+     */
+    @Transactional(propagation = Propagation.MANDATORY,
+            noRollbackFor = {IllegalArgumentException.class, IllegalStateException.class})
+    public long allocateAccountId(Long customerId, AccountType type) {
+        int accountNumber = accountRepository.allocateAccountNumber(
+                        customerId, salaryCount(type), AccountValidationService.MAX_ACCOUNTS_PER_CUSTOMER)
+                .orElseThrow(() -> refused(customerId, type));
+        return customerId * NUMBERS_PER_CUSTOMER + accountNumber;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseAccountId(Long customerId, Long accountId, AccountType type) {
+        // The earlier MAX(id) generator could wrap around to number 000; such numbers are uncounted but not reused
+        int accountNumber = (int) (accountId - customerId * NUMBERS_PER_CUSTOMER);
+        accountRepository.releaseAccountNumber(customerId, accountNumber, salaryCount(type));
+    }
+
+    private RuntimeException refused(Long customerId, AccountType type) {
+        AccountRepository.AccountCounts counts = accountRepository.findAccountCounts(customerId).orElse(null);
+        if (counts != null && counts.getAccountCount() >= AccountValidationService.MAX_ACCOUNTS_PER_CUSTOMER) {
+            return new IllegalArgumentException("Customer can have maximum "
+                    + AccountValidationService.MAX_ACCOUNTS_PER_CUSTOMER + " accounts. Current count: "
+                    + counts.getAccountCount());
+        }
+        if (counts != null && type == AccountType.SALARY && counts.getSalaryCount() > 0) {
+            return new IllegalArgumentException("Customer can have only one SALARY account");
+        }
+        return new IllegalStateException("Account ID space exhausted for customer: " + customerId);
+    }
+
+    private static int salaryCount(AccountType type) {
+        return type == AccountType.SALARY ? 1 : 0;
+    }
+}
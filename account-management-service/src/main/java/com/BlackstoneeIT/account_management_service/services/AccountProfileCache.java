@@ -0,0 +1,94 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_management_service.dto.AccountProfile;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-through cache of {@link AccountProfile}s keyed by customer id, so account validation
+ * normally runs without a query. Misses are loaded with one grouped query (for a whole set of
+ * customers at once via {@link #getAll}). Accounts created or deleted on this node evict the
+ * customer once their transaction commits; changes made on other nodes show up on reload or
+ * after the TTL. The profile is only a pre-check: {@link AccountNumberAllocator} enforces the
+ * account rules in the database.
+ */
+@Service
+public class AccountProfileCache {
+
+    private final LoadingCache<Long, AccountProfile> profiles;
+
+    public AccountProfileCache(
+            AccountRepository accountRepository,
+            @Value("${account.profile-cache.max-size:100000}") long maxSize,
+            @Value("${account.profile-cache.ttl:PT5M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public AccountProfile load(Long customerId) {
+                        return loadAll(Set.of(customerId)).get(customerId);
+                    }
+
+                    // Customers without accounts get an empty profile, so they are cached too
+                    @Override
+                    public Map<Long, AccountProfile> loadAll(Set<? extends Long> customerIds) {
+                        Map<Long, AccountProfile> loaded = new HashMap<>();
+                        customerIds.forEach(customerId -> loaded.put(customerId, new AccountProfile(customerId)));
+                        accountRepository.summarizeByCustomerIds(loaded.keySet())
+                                .forEach(summary -> loaded.get(summary.getCustomerId()).apply(summary));
+                        return loaded;
+                    }
+                });
+        // Exposes cache.gets{result=hit|miss}, cache.load.duration and cache.evictions under /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "account-profiles");
+    }
+
+    /**
+     * @return the customer's cached profile, shared with other callers and not to be modified
+     */
+    public AccountProfile get(Long customerId) {
+        return profiles.get(customerId);
+    }
+
+    public Map<Long, AccountProfile> getAll(Collection<Long> customerIds) {
+        return profiles.getAll(customerIds);
+    }
+
+    /**
+     * @return the customer's profile freshly loaded from the database
+     */
+    public AccountProfile reload(Long customerId) {
+        profiles.invalidate(customerId);
+        return profiles.get(customerId);
+    }
+
+    /**
+     * Drops the customer once the current transaction commits. Evicting rather than adjusting
+     * the counts means a profile loaded between the commit and this callback is not counted twice.
+     */
+    public void evictOnCommit(Long customerId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                profiles.invalidate(customerId);
+            }
+        });
+    }
+}
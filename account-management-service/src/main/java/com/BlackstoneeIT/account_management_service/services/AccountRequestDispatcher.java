@@ -0,0 +1,113 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.account_management_service.util.KeyedExecutor;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener for {@code kafka.consumer.mode=keyed}. Requests are keyed by requestId, so two
+ * requests for one customer can sit in different partitions; here they are handed to a
+ * {@link KeyedExecutor} keyed by customerId, which runs one customer's requests strictly in
+ * order (no race on account ids or the 10-account/one-SALARY rules) and different customers
+ * in parallel. Each record is acknowledged when its processing finishes; with async acks the
+ * container commits a partition only up to its lowest offset not yet acknowledged. When a
+ * stripe's queue fills up the container is paused (it keeps polling, so the group does not
+ * rebalance) and resumed once every stripe has room again, instead of blocking the listener.
+ */
+@Service
+@Slf4j
+public class AccountRequestDispatcher {
+
+    static final String LISTENER_ID = "account-request-dispatcher";
+
+    private final KafkaConsumerService kafkaConsumerService;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final KeyedExecutor executor;
+    private boolean paused;
+
+    public AccountRequestDispatcher(
+            KafkaConsumerService kafkaConsumerService,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            @Value("${kafka.consumer.keyed.workers:16}") int workers,
+            @Value("${kafka.consumer.keyed.queue-capacity:500}") int queueCapacity) {
+        this.kafkaConsumerService = kafkaConsumerService;
+        this.listenerRegistry = listenerRegistry;
+        this.executor = new KeyedExecutor("account-request", workers, queueCapacity);
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            idIsGroup = false,
+            topics = "${kafka.topics.account-creation-requests}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "keyedKafkaListenerContainerFactory",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'keyed'}"
+    )
+    public void dispatch(ConsumerRecord<String, AccountCreationEvent> record, Acknowledgment acknowledgment) {
+        AccountCreationEvent event = record.value();
+        if (event == null || event.getCustomerId() == null) {
+            acknowledgment.acknowledge();
+            return;
+        }
+        KafkaConsumerService.ReplyTarget replyTarget = KafkaConsumerService.ReplyTarget.of(record);
+
+        executor.execute(event.getCustomerId(), () -> {
+            try {
+                // Through the proxy, so each request gets its own transaction
+                kafkaConsumerService.consumeAccountCreationRequest(
+                        event, replyTarget.correlationId(), replyTarget.replyTopic());
+            } catch (RuntimeException e) {
+                // Failures inside are answered by the consumer; this is e.g. a failed commit
+                log.error("Failed to process account request {} for customer {}",
+                        event.getRequestId(), event.getCustomerId(), e);
+                kafkaConsumerService.sendAccountCreationResponse(event, replyTarget, null,
+                        "FAILED", "Technical error: " + e.getMessage());
+            } finally {
+                acknowledgment.acknowledge();
+                resumeIfDrained();
+            }
+        });
+
+        if (!executor.hasCapacity()) {
+            // With pauseImmediate the records left from this poll are held until the resume
+            pause();
+        }
+    }
+
+    private synchronized void pause() {
+        if (!paused) {
+            log.debug("Account request queue full, pausing the listener");
+            paused = true;
+            container().pause();
+        }
+    }
+
+    // Synchronized with pause(), so a resume can never run ahead of the pause it undoes
+    private synchronized void resumeIfDrained() {
+        if (paused && executor.hasCapacity()) {
+            log.debug("Account request queue has room again, resuming the listener");
+            paused = false;
+            container().resume();
+        }
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(LISTENER_ID);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Let queued requests finish so their offsets can still be committed
+        executor.shutdown(30, TimeUnit.SECONDS);
+    }
+}
@@ -11,7 +11,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +23,8 @@ import java.util.stream.Collectors;
 public class AccountService {
 @Autowired
     private final AccountRepository accountRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountProfileCache accountProfileCache;
 
     @Transactional(readOnly = true)
     public List<AccountResponse> getAccountsByCustomerId(Long customerId) {
@@ -36,6 +41,25 @@ public class AccountService {
         return AccountResponse.fromEntity(account);
     }
 
+    /**
+     * Version of the customer's account list, used as its ETag; changes whenever an account
+     * is created, deleted or updated.
+     */
+    @Transactional(readOnly = true)
+    public String getAccountsVersion(Long customerId) {
+        AccountRepository.AccountListVersion version = accountRepository.findAccountListVersionByCustomerId(customerId);
+        return version.getCount() + "-" + version.getIdSum() + "-" + toEpochMillis(version.getLastUpdated());
+    }
+
+    /**
+     * Version of a single account, used as its ETag; empty when the account does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getAccountVersion(Long accountId, Long customerId) {
+        return accountRepository.findUpdatedDateByIdAndCustomerId(accountId, customerId)
+                .map(updatedDate -> accountId + "-" + toEpochMillis(updatedDate));
+    }
+
     @Transactional(readOnly = true)
     public List<AccountResponse> getAllAccounts() {
         return accountRepository.findAll().stream()
@@ -59,6 +83,8 @@ public class AccountService {
         Account account = accountRepository.findByIdAndCustomerId(accountId, customerId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
         accountRepository.delete(account);
+        accountNumberAllocator.releaseAccountId(customerId, accountId, account.getType());
+        accountProfileCache.evictOnCommit(customerId);
         log.info("Account deleted successfully: {}", accountId);
     }
 
@@ -70,8 +96,16 @@ public class AccountService {
             throw new IllegalArgumentException("Investment accounts require minimum balance of 10,000");
         }
 
+        // Allocating the id also counts the account, enforcing the account limit and the one-SALARY rule
+        account.setId(accountNumberAllocator.allocateAccountId(account.getCustomerId(), account.getType()));
         Account savedAccount = accountRepository.save(account);
+        accountProfileCache.evictOnCommit(savedAccount.getCustomerId());
         log.info("Account created successfully: {}", savedAccount.getId());
         return savedAccount;
     }
-}
\ No newline at end of file
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) return 0L;
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
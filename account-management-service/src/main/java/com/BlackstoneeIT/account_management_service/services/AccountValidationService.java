@@ -1,7 +1,7 @@
 package com.BlackstoneeIT.account_management_service.services;
 
+import com.BlackstoneeIT.account_management_service.dto.AccountProfile;
 import com.BlackstoneeIT.account_management_service.enums.AccountType;
-import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,24 +12,42 @@ import java.math.BigDecimal;
 @Slf4j
 public class AccountValidationService {
 
-    private final AccountRepository accountRepository;
+    public static final int MAX_ACCOUNTS_PER_CUSTOMER = 10;
 
+    private final AccountProfileCache accountProfileCache;
+
+    /**
+     * Checks the request against the customer's cached profile, so it normally costs no query.
+     * The account limit and the one-SALARY rule are enforced again by {@link AccountNumberAllocator}
+     * when the account is created; this check only spares the allocation for requests that fail.
+     */
     public void validateAccountCreation(Long customerId, String customerType,
                                         String accountType, BigDecimal initialBalance) {
 
         log.info("Validating account creation for customer: {}, type: {}", customerId, accountType);
 
+        if (customerId == null) {
+            throw new IllegalArgumentException("Customer ID is required");
+        }
+
         // 1. Validate account type
         validateAccountType(accountType);
 
+        AccountProfile profile = accountProfileCache.get(customerId);
+        if (profile.getAccountCount() >= MAX_ACCOUNTS_PER_CUSTOMER
+                || ("SALARY".equals(accountType) && profile.hasSalaryAccount())) {
+            // The cached counts may predate a delete on another instance; only reject on fresh ones
+            profile = accountProfileCache.reload(customerId);
+        }
+
         // 2. Validate customer can have up to 10 accounts
-        validateAccountLimit(customerId);
+        validateAccountLimit(profile.getAccountCount());
 
         // 3. Validate retail customers can only have saving accounts
         validateRetailCustomerRestrictions(customerType, accountType);
 
         // 4. Validate only one salary account per customer
-        validateSalaryAccountLimit(customerId, accountType);
+        validateSalaryAccountLimit(profile, accountType);
 
         // 5. Validate investment account minimum balance
         validateInvestmentAccountRequirements(accountType, initialBalance);
@@ -46,10 +64,10 @@ public class AccountValidationService {
         }
     }
 
-    private void validateAccountLimit(Long customerId) {
-        long accountCount = accountRepository.countByCustomerId(customerId);
-        if (accountCount >= 10) {
-            throw new IllegalArgumentException("Customer can have maximum 10 accounts. Current count: " + accountCount);
+    private void validateAccountLimit(long accountCount) {
+        if (accountCount >= MAX_ACCOUNTS_PER_CUSTOMER) {
+            throw new IllegalArgumentException("Customer can have maximum " + MAX_ACCOUNTS_PER_CUSTOMER
+                    + " accounts. Current count: " + accountCount);
         }
     }
 
@@ -59,11 +77,9 @@ public class AccountValidationService {
         }
     }
 
-    private void validateSalaryAccountLimit(Long customerId, String accountType) {
+    private void validateSalaryAccountLimit(AccountProfile profile, String accountType) {
         if ("SALARY".equals(accountType)) {
-            boolean hasSalaryAccount = accountRepository.existsByCustomerIdAndType(
-                    customerId,AccountType.SALARY);
-            if (hasSalaryAccount) {
+            if (profile.hasSalaryAccount()) {
                 throw new IllegalArgumentException("Customer can have only one SALARY account");
             }
         }
@@ -1,20 +1,27 @@
 package com.BlackstoneeIT.account_management_service.services;
 
 
-import com.BlackstoneeIT.account_management_service.dto.AccountCreationEvent;
-import com.BlackstoneeIT.account_management_service.dto.AccountCreationResponse;
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
 import com.BlackstoneeIT.account_management_service.entity.Account;
 import com.BlackstoneeIT.account_management_service.enums.AccountStatus;
 import com.BlackstoneeIT.account_management_service.enums.AccountType;
 import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -23,16 +30,34 @@ public class KafkaConsumerService {
 
     private final AccountRepository accountRepository;
     private final AccountValidationService validationService;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final AccountProfileCache accountProfileCache;
     private final KafkaTemplate<String, AccountCreationResponse> kafkaTemplate;
     private static final String ACCOUNT_CREATION_RESPONSE_TOPIC = "account-creation-responses";
 
+    // kafka.consumer.mode=single; AccountBatchConsumerService handles mode=batch
     @KafkaListener(
             topics = "${kafka.topics.account-creation-requests}",
-            groupId = "${spring.kafka.consumer.group-id}"
+            groupId = "${spring.kafka.consumer.group-id}",
+            autoStartup = "#{'${kafka.consumer.mode:single}' == 'single'}"
     )
     @Transactional
-    public void consumeAccountCreationRequest(@Payload AccountCreationEvent event) {
+    public void consumeAccountCreationRequest(
+            @Payload AccountCreationEvent event,
+            @Header(name = KafkaHeaders.CORRELATION_ID, required = false) byte[] correlationId,
+            @Header(name = KafkaHeaders.REPLY_TOPIC, required = false) byte[] replyTopic) {
         log.info("Received account creation request: {}", event);
+        ReplyTarget replyTarget = new ReplyTarget(correlationId, replyTopic);
+
+        // A redelivered request gets the account created the first time, not a second one
+        Account existing = event.getRequestId() != null
+                ? accountRepository.findByRequestId(event.getRequestId()).orElse(null)
+                : null;
+        if (existing != null) {
+            log.info("Account {} already created for request {}", existing.getId(), event.getRequestId());
+            sendAccountCreationResponse(event, replyTarget, existing.getId(), "SUCCESS", "Account created successfully");
+            return;
+        }
 
         try {
             // 1. Validate the account creation request
@@ -48,10 +73,12 @@ public class KafkaConsumerService {
 
             // 3. Save the account
             Account savedAccount = accountRepository.save(account);
+            accountProfileCache.evictOnCommit(savedAccount.getCustomerId());
 
             // 4. Send success response
             sendAccountCreationResponse(
                     event,
+                    replyTarget,
                     savedAccount.getId(),
                     "SUCCESS",
                     "Account created successfully"
@@ -63,56 +90,33 @@ public class KafkaConsumerService {
             // Business validation failed
             log.warn("Account creation validation failed for customer {}: {}",
                     event.getCustomerId(), e.getMessage());
-            sendAccountCreationResponse(event, null, "VALIDATION_FAILED", e.getMessage());
+            sendAccountCreationResponse(event, replyTarget, null, "VALIDATION_FAILED", e.getMessage());
 
         } catch (Exception e) {
             // Technical failure
             log.error("Failed to create account for customer: {}", event.getCustomerId(), e);
-            sendAccountCreationResponse(event, null, "FAILED", "Technical error: " + e.getMessage());
+            sendAccountCreationResponse(event, replyTarget, null, "FAILED", "Technical error: " + e.getMessage());
         }
     }
 
     private Account createAccountFromEvent(AccountCreationEvent event) {
+        return newAccount(event, accountNumberAllocator.allocateAccountId(
+                event.getCustomerId(), AccountType.valueOf(event.getAccountType())));
+    }
+
+    static Account newAccount(AccountCreationEvent event, Long accountId) {
         Account account = new Account();
         account.setCustomerId(event.getCustomerId());
         account.setType(AccountType.valueOf(event.getAccountType()));
         account.setBalance(event.getInitialBalance() != null ? event.getInitialBalance() : BigDecimal.ZERO);
         account.setStatus(AccountStatus.ACTIVE);
-        account.setId(generateSequentialAccountId(event.getCustomerId()));
+        account.setId(accountId);
+        account.setRequestId(event.getRequestId());
         return account;
     }
 
-//    private Long generateAccountId(Long customerId) {
-//        // Generate 10-digit account ID: first 7 digits = customer ID, last 3 random
-//        String customerIdStr = String.valueOf(customerId);
-//        String randomSuffix = String.format("%03d", (int) (Math.random() * 1000));
-//        return Long.parseLong(customerIdStr + randomSuffix);
-//    }
-private Long generateSequentialAccountId(Long customerId) {
-    // Find the highest account ID for this customer
-    Long maxAccountId = accountRepository.findMaxAccountIdByCustomerId(customerId)
-            .orElse(customerId * 1000L); // Start from customerId + 000
-
-    // Generate next sequential ID
-    Long nextAccountId = maxAccountId + 1;
-
-    // Verify it follows the pattern (customer ID + 3 digits)
-    Long expectedCustomerIdPart = nextAccountId / 1000;
-    if (!expectedCustomerIdPart.equals(customerId)) {
-        // If we exceed 999, wrap around to 000
-        nextAccountId = customerId * 1000L;
-    }
-
-    // Check if this ID already exists (in case of wrap-around)
-    if (accountRepository.existsById(nextAccountId)) {
-        throw new IllegalStateException("Account ID space exhausted for customer: " + customerId);
-    }
-
-    return nextAccountId;
-}
-
-    private void sendAccountCreationResponse(AccountCreationEvent event, Long accountId,
-                                             String status, String message) {
+    CompletableFuture<SendResult<String, AccountCreationResponse>> sendAccountCreationResponse(
+            AccountCreationEvent event, ReplyTarget replyTarget, Long accountId, String status, String message) {
         AccountCreationResponse response = new AccountCreationResponse(
                 event.getRequestId(),
                 accountId,
@@ -123,8 +127,34 @@ private Long generateSequentialAccountId(Long customerId) {
                 System.currentTimeMillis()
         );
 
-        kafkaTemplate.send(ACCOUNT_CREATION_RESPONSE_TOPIC, event.getRequestId(), response);
+        ProducerRecord<String, AccountCreationResponse> record =
+                new ProducerRecord<>(replyTarget.topic(), event.getRequestId(), response);
+        if (replyTarget.correlationId() != null) {
+            // Echo the requester's correlation id so request-reply callers can match the reply
+            record.headers().add(KafkaHeaders.CORRELATION_ID, replyTarget.correlationId());
+        }
+        CompletableFuture<SendResult<String, AccountCreationResponse>> sent = kafkaTemplate.send(record);
         log.info("Sent account creation response: {}", response);
+        return sent;
+    }
+
+    /**
+     * Where to send the reply: the requester's reply topic when it supplied one, otherwise the
+     * default response topic.
+     */
+    record ReplyTarget(byte[] correlationId, byte[] replyTopic) {
+        static ReplyTarget of(ConsumerRecord<?, ?> record) {
+            org.apache.kafka.common.header.Header correlationId = record.headers().lastHeader(KafkaHeaders.CORRELATION_ID);
+            org.apache.kafka.common.header.Header replyTopic = record.headers().lastHeader(KafkaHeaders.REPLY_TOPIC);
+            return new ReplyTarget(correlationId != null ? correlationId.value() : null,
+                    replyTopic != null ? replyTopic.value() : null);
+        }
+
+        String topic() {
+            return replyTopic != null
+                    ? new String(replyTopic, StandardCharsets.UTF_8)
+                    : ACCOUNT_CREATION_RESPONSE_TOPIC;
+        }
     }
 
     private String getErrorCode(String status) {
@@ -0,0 +1,90 @@
+package com.BlackstoneeIT.account_management_service.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks with the same key one after another, in submission order, and tasks with
+ * different keys in parallel. Keys are hashed onto a fixed set of single-threaded stripes,
+ * so two keys may share a stripe (and wait for each other) but one key never runs on two
+ * threads at once. Callers should check {@link #hasCapacity()} and stop submitting while it is
+ * false; a task submitted to a full stripe waits for room, so that no work is dropped.
+ */
+public class KeyedExecutor {
+
+    private final ThreadPoolExecutor[] stripes;
+
+    public KeyedExecutor(String name, int stripeCount, int queueCapacity) {
+        this.stripes = new ThreadPoolExecutor[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            String threadName = name + "-" + i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    (runnable, executor) -> waitForRoom(threadName, executor, runnable));
+        }
+    }
+
+    public void execute(long key, Runnable task) {
+        stripes[stripe(key)].execute(task);
+    }
+
+    /**
+     * @return whether a task for any key would be queued without waiting
+     */
+    public boolean hasCapacity() {
+        for (ThreadPoolExecutor stripe : stripes) {
+            if (stripe.getQueue().remainingCapacity() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops accepting tasks and waits up to {@code timeout} for the queued ones to finish.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void waitForRoom(String threadName, ThreadPoolExecutor executor, Runnable runnable) {
+        try {
+            // Re-checked between bounded waits, so a stripe shut down meanwhile rejects instead of blocking
+            while (!executor.isShutdown()) {
+                if (executor.getQueue().offer(runnable, 100, TimeUnit.MILLISECONDS)) {
+                    // shutdown() may have let the worker exit just before the task was queued; a task
+                    // still queued then would never run, so take it back and reject it
+                    if (executor.isShutdown() && executor.getQueue().remove(runnable)) {
+                        break;
+                    }
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for " + threadName, e);
+        }
+        throw new RejectedExecutionException(threadName + " is shut down");
+    }
+
+    int stripe(long key) {
+        // SplitMix64 finalizer, spreads sequential customer ids across the stripes
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        key ^= key >>> 31;
+        return (int) Math.floorMod(key, (long) stripes.length);
+    }
+}
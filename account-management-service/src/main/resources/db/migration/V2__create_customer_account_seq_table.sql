@@ -0,0 +1,26 @@
+-- Last account number (the three digits after the customer id) handed out per customer
+CREATE TABLE IF NOT EXISTS customer_account_seq (
+    customer_id BIGINT PRIMARY KEY,
+    last_number INTEGER NOT NULL CHECK (last_number BETWEEN 0 AND 999)
+    );
+
+-- Numbers released by deleted accounts, handed out again before the counter moves on
+CREATE TABLE IF NOT EXISTS customer_account_free_numbers (
+    customer_id BIGINT NOT NULL,
+    account_number INTEGER NOT NULL CHECK (account_number BETWEEN 1 AND 999),
+    PRIMARY KEY (customer_id, account_number)
+    );
+
+-- Only ids of the form customer_id * 1000 + 001..999; the earlier generator could wrap around to 000
+INSERT INTO customer_account_seq (customer_id, last_number)
+SELECT customer_id, MAX(id) - customer_id * 1000
+FROM accounts
+WHERE id BETWEEN customer_id * 1000 + 1 AND customer_id * 1000 + 999
+GROUP BY customer_id;
+
+-- Gaps left below the counter by accounts deleted before this table existed
+INSERT INTO customer_account_free_numbers (customer_id, account_number)
+SELECT s.customer_id, n.number
+FROM customer_account_seq s
+         CROSS JOIN LATERAL generate_series(1, s.last_number) AS n(number)
+WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.id = s.customer_id * 1000 + n.number);
@@ -0,0 +1,13 @@
+-- Account counts kept under the allocator's row lock, so the 10-account and one-SALARY rules hold
+-- across instances and concurrent requests
+ALTER TABLE customer_account_seq
+    ADD COLUMN account_count INTEGER NOT NULL DEFAULT 0 CHECK (account_count >= 0),
+    ADD COLUMN salary_count INTEGER NOT NULL DEFAULT 0 CHECK (salary_count >= 0);
+
+-- Every account counts, including legacy ids outside the 001..999 numbering
+INSERT INTO customer_account_seq (customer_id, last_number, account_count, salary_count)
+SELECT customer_id, 0, COUNT(*), COUNT(*) FILTER (WHERE type = 'SALARY')
+FROM accounts
+GROUP BY customer_id
+ON CONFLICT (customer_id) DO UPDATE SET account_count = EXCLUDED.account_count,
+                                        salary_count = EXCLUDED.salary_count;
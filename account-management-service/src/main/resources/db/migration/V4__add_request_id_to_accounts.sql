@@ -0,0 +1,5 @@
+-- Request that created the account, so a redelivered request is answered with the same account
+-- instead of creating a second one. Accounts opened through the REST API have none
+ALTER TABLE accounts ADD COLUMN request_id VARCHAR(64);
+
+CREATE UNIQUE INDEX idx_accounts_request_id ON accounts(request_id);
@@ -19,6 +19,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -115,6 +116,52 @@ class AccountControllerTest {
         verify(accountService, times(1)).getAccountById(accountId, customerId);
     }
 
+    @Test
+    void getAccountById_WithVersion_ReturnsETag() throws Exception {
+        // Arrange
+        Long accountId = 5000001L;
+        Long customerId = 1000001L;
+        when(accountService.getAccountVersion(accountId, customerId)).thenReturn(Optional.of("5000001-1700000000000"));
+        when(accountService.getAccountById(accountId, customerId)).thenReturn(accountResponse1);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/accounts/{accountId}/customer/{customerId}", accountId, customerId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5000001-1700000000000\""))
+                .andExpect(jsonPath("$.id").value(5000001L));
+    }
+
+    @Test
+    void getAccountById_MatchingIfNoneMatch_ReturnsNotModifiedWithoutLoading() throws Exception {
+        // Arrange
+        Long accountId = 5000001L;
+        Long customerId = 1000001L;
+        when(accountService.getAccountVersion(accountId, customerId)).thenReturn(Optional.of("5000001-1700000000000"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/accounts/{accountId}/customer/{customerId}", accountId, customerId)
+                        .header("If-None-Match", "\"5000001-1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Only the version was read
+        verify(accountService, never()).getAccountById(any(), any());
+    }
+
+    @Test
+    void getAccountsByCustomerId_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        when(accountService.getAccountsVersion(customerId)).thenReturn("2-10000003-1700000000000");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/accounts/customer/{customerId}", customerId)
+                        .header("If-None-Match", "\"2-10000003-1700000000000\""))
+                .andExpect(status().isNotModified());
+
+        verify(accountService, never()).getAccountsByCustomerId(any());
+    }
+
     @Test
     void getAllAccounts_ReturnsAllAccounts() throws Exception {
         // Arrange
@@ -0,0 +1,90 @@
+package com.BlackstoneeIT.account_management_service.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds the per-customer counter tables (V2, V3) from accounts created under V1, including
+ * the legacy ids the earlier MAX(id) generator produced.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AccountNumberMigrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway("1").clean();
+        flyway("1").migrate();
+    }
+
+    @Test
+    void migrate_ExistingAccounts_SeedsCounterFreeNumbersAndCounts() {
+        // Customer 1000001: numbers 001, 003 and 004 (002 deleted), one SALARY account
+        insertAccount(1000001001L, 1000001L, "SALARY");
+        insertAccount(1000001003L, 1000001L, "SAVING");
+        insertAccount(1000001004L, 1000001L, "SAVING");
+        // Customer 1000002: only a legacy account 000
+        insertAccount(1000002000L, 1000002L, "SAVING");
+
+        flyway("latest").migrate();
+
+        assertEquals(Map.of("last_number", 4, "account_count", 3, "salary_count", 1), seqRow(1000001L));
+        assertEquals(List.of(2), freeNumbers(1000001L));
+        // Counted, so the limit holds, but 000 is not a number the counter hands out or reuses
+        assertEquals(Map.of("last_number", 0, "account_count", 1, "salary_count", 0), seqRow(1000002L));
+        assertEquals(List.of(), freeNumbers(1000002L));
+    }
+
+    @Test
+    void migrate_NoAccounts_LeavesTablesEmpty() {
+        flyway("latest").migrate();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_db.customer_account_seq", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_db.customer_account_free_numbers", Integer.class));
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("account_db")
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .target(target)
+                .load();
+    }
+
+    private void insertAccount(long id, long customerId, String type) {
+        jdbcTemplate.update("INSERT INTO account_db.accounts (id, customer_id, type) VALUES (?, ?, ?)",
+                id, customerId, type);
+    }
+
+    private Map<String, Object> seqRow(long customerId) {
+        return jdbcTemplate.queryForMap("SELECT last_number, account_count, salary_count " +
+                "FROM account_db.customer_account_seq WHERE customer_id = ?", customerId);
+    }
+
+    private List<Integer> freeNumbers(long customerId) {
+        return jdbcTemplate.queryForList("SELECT account_number FROM account_db.customer_account_free_numbers " +
+                "WHERE customer_id = ? ORDER BY account_number", Integer.class, customerId);
+    }
+}
@@ -0,0 +1,186 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.BlackstoneeIT.account_management_service.dto.AccountProfile;
+import com.BlackstoneeIT.account_management_service.entity.Account;
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBatchConsumerServiceTest {
+
+    private static final Long CUSTOMER_ID = 1000001L;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Mock
+    private AccountProfileCache accountProfileCache;
+
+    @Mock
+    private KafkaTemplate<String, AccountCreationResponse> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, AccountCreationResponse>> sentRecords;
+
+    @Captor
+    private ArgumentCaptor<List<Account>> savedAccounts;
+
+    private AccountBatchConsumerService batchConsumerService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().when(accountProfileCache.get(anyLong()))
+                .thenAnswer(invocation -> new AccountProfile(invocation.getArgument(0)));
+        lenient().when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        AccountValidationService validationService = new AccountValidationService(accountProfileCache);
+        KafkaConsumerService kafkaConsumerService = new KafkaConsumerService(accountRepository, validationService,
+                accountNumberAllocator, accountProfileCache, kafkaTemplate);
+        batchConsumerService = new AccountBatchConsumerService(accountRepository, validationService,
+                kafkaConsumerService, accountNumberAllocator, accountProfileCache, transactionManager, 1000L);
+    }
+
+    @Test
+    void consume_SecondRequestOfCustomerRefused_CreatesFirstAndRejectsSecond() {
+        // Arrange
+        when(accountNumberAllocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY))
+                .thenReturn(1000001001L)
+                .thenThrow(new IllegalArgumentException("Customer can have only one SALARY account"));
+
+        // Act
+        batchConsumerService.consumeAccountCreationRequests(List.of(
+                record(0, event("req-1", CUSTOMER_ID, "SALARY")),
+                record(1, event("req-2", CUSTOMER_ID, "SALARY"))));
+
+        // Assert
+        verify(accountRepository).saveAll(savedAccounts.capture());
+        assertEquals(List.of(1000001001L), savedAccounts.getValue().stream().map(Account::getId).toList());
+        assertEquals("req-1", savedAccounts.getValue().get(0).getRequestId());
+
+        List<AccountCreationResponse> responses = sentResponses(2);
+        assertEquals("SUCCESS", responses.get(0).getStatus());
+        assertEquals(1000001001L, responses.get(0).getAccountId());
+        assertEquals("VALIDATION_FAILED", responses.get(1).getStatus());
+        assertEquals("Customer can have only one SALARY account", responses.get(1).getMessage());
+        verify(accountProfileCache, times(1)).evictOnCommit(CUSTOMER_ID);
+    }
+
+    @Test
+    void consume_NullEventOrCustomerId_SkipsEventAndRejectsMissingCustomer() {
+        // Act
+        batchConsumerService.consumeAccountCreationRequests(Arrays.asList(
+                record(0, null),
+                record(1, event("req-2", null, "SAVING"))));
+
+        // Assert
+        List<AccountCreationResponse> responses = sentResponses(1);
+        assertEquals("req-2", responses.get(0).getRequestId());
+        assertEquals("VALIDATION_FAILED", responses.get(0).getStatus());
+        assertEquals("Customer ID is required", responses.get(0).getMessage());
+        verifyNoInteractions(accountNumberAllocator);
+    }
+
+    @Test
+    void consume_BatchInsertFails_RetriesEachRequestOnItsOwn() {
+        // Arrange
+        when(accountNumberAllocator.allocateAccountId(eq(CUSTOMER_ID), any()))
+                .thenReturn(1000001001L, 1000001002L, 1000001003L, 1000001004L);
+        when(accountRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        batchConsumerService.consumeAccountCreationRequests(List.of(
+                record(0, event("req-1", CUSTOMER_ID, "SAVING")),
+                record(1, event("req-2", CUSTOMER_ID, "SAVING"))));
+
+        // Assert
+        verify(transactionManager, times(1)).rollback(any());
+        verify(accountRepository, times(2)).save(any(Account.class));
+        List<AccountCreationResponse> responses = sentResponses(2);
+        assertEquals(List.of("req-1", "req-2"),
+                responses.stream().map(AccountCreationResponse::getRequestId).toList());
+        assertTrue(responses.stream().allMatch(response -> "SUCCESS".equals(response.getStatus())));
+    }
+
+    @Test
+    void consume_ResponseNotAcknowledged_FailsPollAndAnswersRedeliveryWithoutCreatingAgain() {
+        // Arrange
+        when(accountNumberAllocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING)).thenReturn(1000001001L);
+        List<Account> created = new ArrayList<>();
+        when(accountRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            created.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(kafkaTemplate.send(anyRecord()))
+                .thenReturn(CompletableFuture.<SendResult<String, AccountCreationResponse>>failedFuture(
+                        new RuntimeException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        List<ConsumerRecord<String, AccountCreationEvent>> poll =
+                List.of(record(0, event("req-1", CUSTOMER_ID, "SAVING")));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> batchConsumerService.consumeAccountCreationRequests(poll));
+
+        when(accountRepository.findByRequestIdIn(any())).thenReturn(created);
+        batchConsumerService.consumeAccountCreationRequests(poll);
+
+        verify(accountNumberAllocator, times(1)).allocateAccountId(any(), any());
+        List<AccountCreationResponse> responses = sentResponses(2);
+        assertEquals("SUCCESS", responses.get(1).getStatus());
+        assertEquals(1000001001L, responses.get(1).getAccountId());
+    }
+
+    private List<AccountCreationResponse> sentResponses(int expected) {
+        verify(kafkaTemplate, times(expected)).send(sentRecords.capture());
+        return sentRecords.getAllValues().stream().map(ProducerRecord::value).toList();
+    }
+
+    private static ProducerRecord<String, AccountCreationResponse> anyRecord() {
+        return any();
+    }
+
+    private static ConsumerRecord<String, AccountCreationEvent> record(long offset, AccountCreationEvent event) {
+        return new ConsumerRecord<>("account-creation-requests", 0, offset,
+                event != null ? event.getRequestId() : null, event);
+    }
+
+    private static AccountCreationEvent event(String requestId, Long customerId, String accountType) {
+        return new AccountCreationEvent(customerId, "CORPORATE", accountType, new BigDecimal("100.00"),
+                requestId, System.currentTimeMillis());
+    }
+}
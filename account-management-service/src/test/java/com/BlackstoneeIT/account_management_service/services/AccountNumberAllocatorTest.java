@@ -0,0 +1,164 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the allocation and release statements against PostgreSQL with the Flyway schema. Each
+ * test runs in its own rolled back transaction, which the allocator joins.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(AccountNumberAllocator.class)
+class AccountNumberAllocatorTest {
+
+    private static final long CUSTOMER_ID = 1000001L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void allocate_NewCustomer_StartsAtNumberOneAndCountsTheAccount() {
+        assertEquals(1000001001L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY));
+
+        assertCounts(1, 1);
+    }
+
+    @Test
+    void allocate_ReleasedNumbers_ReusesLowestFirst() {
+        allocate(3, AccountType.SAVING);
+        allocator.releaseAccountId(CUSTOMER_ID, 1000001003L, AccountType.SAVING);
+        allocator.releaseAccountId(CUSTOMER_ID, 1000001002L, AccountType.SAVING);
+
+        assertEquals(1000001002L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertEquals(1000001003L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertEquals(1000001004L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertEquals(List.of(), freeNumbers());
+        assertCounts(4, 0);
+    }
+
+    @Test
+    void allocate_CounterAt999_ThrowsIllegalStateUntilANumberIsFreed() {
+        jdbcTemplate.update("INSERT INTO account_db.customer_account_seq " +
+                "(customer_id, last_number, account_count, salary_count) VALUES (?, 999, 3, 0)", CUSTOMER_ID);
+
+        IllegalStateException exhausted = assertThrows(IllegalStateException.class,
+                () -> allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertEquals("Account ID space exhausted for customer: " + CUSTOMER_ID, exhausted.getMessage());
+        assertCounts(3, 0);
+
+        jdbcTemplate.update("INSERT INTO account_db.customer_account_free_numbers (customer_id, account_number) " +
+                "VALUES (?, 42)", CUSTOMER_ID);
+        assertEquals(1000001042L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertCounts(4, 0);
+    }
+
+    @Test
+    void allocate_EleventhAccount_IsRefusedWithoutChangingTheCounts() {
+        allocate(AccountValidationService.MAX_ACCOUNTS_PER_CUSTOMER, AccountType.SAVING);
+
+        IllegalArgumentException refused = assertThrows(IllegalArgumentException.class,
+                () -> allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertEquals("Customer can have maximum 10 accounts. Current count: 10", refused.getMessage());
+        assertCounts(10, 0);
+    }
+
+    @Test
+    void allocate_SecondSalaryAccount_IsRefusedButOtherTypesAreNot() {
+        allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY);
+
+        IllegalArgumentException refused = assertThrows(IllegalArgumentException.class,
+                () -> allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY));
+        assertEquals("Customer can have only one SALARY account", refused.getMessage());
+        assertEquals(1000001002L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+        assertCounts(2, 1);
+    }
+
+    @Test
+    void allocate_Refused_LeavesTheCallersTransactionCommittable() {
+        allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY));
+
+        // The consumers answer a refusal and commit the rest of their work
+        TransactionStatus current = transactionManager.getTransaction(
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_MANDATORY));
+        assertFalse(current.isRollbackOnly());
+        transactionManager.commit(current);
+    }
+
+    @Test
+    void release_DecrementsTheCountsAndLiftsTheRules() {
+        allocate(AccountValidationService.MAX_ACCOUNTS_PER_CUSTOMER - 1, AccountType.SAVING);
+        long salaryAccountId = allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY);
+
+        allocator.releaseAccountId(CUSTOMER_ID, salaryAccountId, AccountType.SALARY);
+
+        assertCounts(9, 0);
+        assertEquals(salaryAccountId, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SALARY));
+        assertCounts(10, 1);
+    }
+
+    @Test
+    void release_LegacyNumberZero_IsUncountedButNeverReused() {
+        // A legacy account 000 seeded by V3: counted, but below the counter's numbering
+        jdbcTemplate.update("INSERT INTO account_db.customer_account_seq " +
+                "(customer_id, last_number, account_count, salary_count) VALUES (?, 5, 1, 0)", CUSTOMER_ID);
+
+        allocator.releaseAccountId(CUSTOMER_ID, CUSTOMER_ID * 1000, AccountType.SAVING);
+
+        assertCounts(0, 0);
+        assertEquals(List.of(), freeNumbers());
+        assertEquals(1000001006L, allocator.allocateAccountId(CUSTOMER_ID, AccountType.SAVING));
+    }
+
+    private void allocate(int accounts, AccountType type) {
+        for (int i = 0; i < accounts; i++) {
+            allocator.allocateAccountId(CUSTOMER_ID, type);
+        }
+    }
+
+    private void assertCounts(int accountCount, int salaryCount) {
+        AccountRepository.AccountCounts counts = accountRepository.findAccountCounts(CUSTOMER_ID).orElseThrow();
+        assertEquals(accountCount, counts.getAccountCount());
+        assertEquals(salaryCount, counts.getSalaryCount());
+    }
+
+    private List<Integer> freeNumbers() {
+        return jdbcTemplate.queryForList("SELECT account_number FROM account_db.customer_account_free_numbers " +
+                "WHERE customer_id = ? ORDER BY account_number", Integer.class, CUSTOMER_ID);
+    }
+}
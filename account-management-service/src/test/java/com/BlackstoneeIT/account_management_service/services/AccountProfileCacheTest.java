@@ -0,0 +1,167 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_management_service.dto.AccountProfile;
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import com.BlackstoneeIT.account_management_service.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountProfileCacheTest {
+
+    private static final Long CUSTOMER_ID = 1000001L;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AccountProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountProfileCache(accountRepository, 1000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_CachedCustomer_DoesNotQueryAgain() {
+        // Arrange
+        when(accountRepository.summarizeByCustomerIds(any()))
+                .thenReturn(List.of(summary(CUSTOMER_ID, AccountType.SALARY, 1), summary(CUSTOMER_ID, AccountType.SAVING, 2)));
+
+        // Act
+        AccountProfile first = cache.get(CUSTOMER_ID);
+        AccountProfile second = cache.get(CUSTOMER_ID);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(3, second.getAccountCount());
+        assertTrue(second.hasSalaryAccount());
+        verify(accountRepository, times(1)).summarizeByCustomerIds(any());
+    }
+
+    @Test
+    void get_CustomerWithoutAccounts_CachesEmptyProfile() {
+        // Arrange
+        when(accountRepository.summarizeByCustomerIds(any())).thenReturn(List.of());
+
+        // Act
+        cache.get(CUSTOMER_ID);
+        AccountProfile profile = cache.get(CUSTOMER_ID);
+
+        // Assert
+        assertEquals(0, profile.getAccountCount());
+        verify(accountRepository, times(1)).summarizeByCustomerIds(any());
+    }
+
+    @Test
+    void getAll_LoadsAllUncachedCustomersWithOneQuery() {
+        // Arrange
+        List<Set<Long>> queried = new ArrayList<>();
+        when(accountRepository.summarizeByCustomerIds(any())).thenAnswer(invocation -> {
+            Collection<Long> customerIds = invocation.getArgument(0);
+            queried.add(Set.copyOf(customerIds));
+            return customerIds.contains(1000002L) ? List.of(summary(1000002L, AccountType.SAVING, 4)) : List.of();
+        });
+        cache.get(CUSTOMER_ID);
+
+        // Act
+        Map<Long, AccountProfile> profiles = cache.getAll(List.of(CUSTOMER_ID, 1000002L, 1000003L));
+
+        // Assert
+        assertEquals(List.of(Set.of(CUSTOMER_ID), Set.of(1000002L, 1000003L)), queried);
+        assertEquals(Set.of(CUSTOMER_ID, 1000002L, 1000003L), profiles.keySet());
+        assertEquals(4, profiles.get(1000002L).getAccountCount());
+        assertEquals(0, profiles.get(1000003L).getAccountCount());
+    }
+
+    @Test
+    void reload_QueriesAgainAndReplacesCachedProfile() {
+        // Arrange
+        when(accountRepository.summarizeByCustomerIds(any()))
+                .thenReturn(List.of(summary(CUSTOMER_ID, AccountType.SAVING, 10)))
+                .thenReturn(List.of(summary(CUSTOMER_ID, AccountType.SAVING, 9)));
+        cache.get(CUSTOMER_ID);
+
+        // Act
+        AccountProfile reloaded = cache.reload(CUSTOMER_ID);
+
+        // Assert
+        assertEquals(9, reloaded.getAccountCount());
+        assertSame(reloaded, cache.get(CUSTOMER_ID));
+        verify(accountRepository, times(2)).summarizeByCustomerIds(any());
+    }
+
+    @Test
+    void evictOnCommit_Committed_EvictsAfterCommitOnly() {
+        // Arrange
+        when(accountRepository.summarizeByCustomerIds(any())).thenReturn(List.of());
+        AccountProfile cached = cache.get(CUSTOMER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act & Assert
+        cache.evictOnCommit(CUSTOMER_ID);
+        assertSame(cached, cache.get(CUSTOMER_ID));
+
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        assertNotSame(cached, cache.get(CUSTOMER_ID));
+        verify(accountRepository, times(2)).summarizeByCustomerIds(any());
+    }
+
+    @Test
+    void evictOnCommit_RolledBack_KeepsProfile() {
+        // Arrange
+        when(accountRepository.summarizeByCustomerIds(any())).thenReturn(List.of());
+        AccountProfile cached = cache.get(CUSTOMER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cache.evictOnCommit(CUSTOMER_ID);
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        assertSame(cached, cache.get(CUSTOMER_ID));
+        verify(accountRepository, times(1)).summarizeByCustomerIds(any());
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        }
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    static AccountRepository.AccountTypeSummary summary(Long customerId, AccountType type, long count) {
+        return new TypeSummary(customerId, type, count);
+    }
+
+    private record TypeSummary(Long getCustomerId, AccountType getType, long getCount)
+            implements AccountRepository.AccountTypeSummary {
+    }
+}
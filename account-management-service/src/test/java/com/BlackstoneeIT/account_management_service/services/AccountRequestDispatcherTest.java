@@ -0,0 +1,147 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountRequestDispatcherTest {
+
+    private static final Long CUSTOMER_ID = 1000001L;
+
+    @Mock
+    private KafkaConsumerService kafkaConsumerService;
+
+    @Mock
+    private KafkaListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private MessageListenerContainer container;
+
+    private AccountRequestDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(listenerRegistry.getListenerContainer(AccountRequestDispatcher.LISTENER_ID))
+                .thenReturn(container);
+        // One stripe with room for one queued request besides the running one
+        dispatcher = new AccountRequestDispatcher(kafkaConsumerService, listenerRegistry, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_ProcessesRecordAndAcknowledgesOnce() throws InterruptedException {
+        // Arrange
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        // Act
+        dispatcher.dispatch(record("req-1", CUSTOMER_ID), acknowledgment);
+        dispatcher.shutdown();
+
+        // Assert
+        verify(kafkaConsumerService).consumeAccountCreationRequest(any(AccountCreationEvent.class), isNull(), isNull());
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void dispatch_ProcessingThrows_AnswersFailedAndAcknowledgesOnce() throws InterruptedException {
+        // Arrange
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+        doThrow(new IllegalStateException("commit failed"))
+                .when(kafkaConsumerService).consumeAccountCreationRequest(any(), any(), any());
+
+        // Act
+        dispatcher.dispatch(record("req-1", CUSTOMER_ID), acknowledgment);
+        dispatcher.shutdown();
+
+        // Assert
+        verify(kafkaConsumerService).sendAccountCreationResponse(any(AccountCreationEvent.class), any(),
+                isNull(), eq("FAILED"), eq("Technical error: commit failed"));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    @Test
+    void dispatch_NullEventOrCustomerId_AcknowledgesWithoutProcessing() {
+        // Arrange
+        Acknowledgment nullEvent = mock(Acknowledgment.class);
+        Acknowledgment nullCustomer = mock(Acknowledgment.class);
+
+        // Act
+        dispatcher.dispatch(new ConsumerRecord<>("account-creation-requests", 0, 0L, "req-1", null), nullEvent);
+        dispatcher.dispatch(record("req-2", null), nullCustomer);
+
+        // Assert
+        verify(nullEvent, times(1)).acknowledge();
+        verify(nullCustomer, times(1)).acknowledge();
+        verifyNoInteractions(kafkaConsumerService);
+    }
+
+    @Test
+    void dispatch_SameCustomer_ProcessedInOrder() throws InterruptedException {
+        // Arrange
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        // Act: the listener pauses and resumes while the single queue slot fills and drains
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(record("req-" + i, CUSTOMER_ID), acknowledgment);
+        }
+        dispatcher.shutdown();
+
+        // Assert
+        var inOrder = inOrder(kafkaConsumerService);
+        for (int i = 0; i < 20; i++) {
+            String requestId = "req-" + i;
+            inOrder.verify(kafkaConsumerService).consumeAccountCreationRequest(
+                    argThat(event -> requestId.equals(event.getRequestId())), any(), any());
+        }
+        verify(acknowledgment, times(20)).acknowledge();
+    }
+
+    @Test
+    void dispatch_QueueFull_PausesListenerUntilDrained() throws InterruptedException {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(kafkaConsumerService).consumeAccountCreationRequest(
+                        argThat(event -> "req-1".equals(event.getRequestId())), any(), any());
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        // Act: the first request runs, the second fills the queue
+        dispatcher.dispatch(record("req-1", CUSTOMER_ID), acknowledgment);
+        verify(container, never()).pause();
+        dispatcher.dispatch(record("req-2", CUSTOMER_ID), acknowledgment);
+
+        // Assert
+        verify(container, times(1)).pause();
+        verify(container, never()).resume();
+
+        release.countDown();
+        verify(container, timeout(5000).times(1)).resume();
+        verify(acknowledgment, timeout(5000).times(2)).acknowledge();
+    }
+
+    private static ConsumerRecord<String, AccountCreationEvent> record(String requestId, Long customerId) {
+        AccountCreationEvent event = new AccountCreationEvent(customerId, "CORPORATE", "SAVING",
+                new BigDecimal("100.00"), requestId, System.currentTimeMillis());
+        return new ConsumerRecord<>("account-creation-requests", 0, 0L, requestId, event);
+    }
+}
@@ -0,0 +1,117 @@
+package com.BlackstoneeIT.account_management_service.services;
+
+import com.BlackstoneeIT.account_management_service.dto.AccountProfile;
+import com.BlackstoneeIT.account_management_service.enums.AccountType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountValidationServiceTest {
+
+    private static final Long CUSTOMER_ID = 1000001L;
+    private static final BigDecimal BALANCE = new BigDecimal("100.00");
+
+    @Mock
+    private AccountProfileCache accountProfileCache;
+
+    @InjectMocks
+    private AccountValidationService validationService;
+
+    @Test
+    void validate_CachedProfileAccepts_DoesNotReload() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(profile(AccountType.SAVING, 9));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "SALARY", BALANCE));
+        verify(accountProfileCache, never()).reload(any());
+    }
+
+    @Test
+    void validate_CachedProfileAtLimit_ReloadsAndAcceptsWhenAccountWasDeleted() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(profile(AccountType.SAVING, 10));
+        when(accountProfileCache.reload(CUSTOMER_ID)).thenReturn(profile(AccountType.SAVING, 9));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "SAVING", BALANCE));
+        verify(accountProfileCache, times(1)).reload(CUSTOMER_ID);
+    }
+
+    @Test
+    void validate_FreshProfileAtLimit_Rejects() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(profile(AccountType.SAVING, 10));
+        when(accountProfileCache.reload(CUSTOMER_ID)).thenReturn(profile(AccountType.SAVING, 10));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "SAVING", BALANCE));
+        assertEquals("Customer can have maximum 10 accounts. Current count: 10", exception.getMessage());
+    }
+
+    @Test
+    void validate_CachedSalaryAccount_ReloadsBeforeRejectingSecondSalary() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(profile(AccountType.SALARY, 1));
+        when(accountProfileCache.reload(CUSTOMER_ID))
+                .thenReturn(profile(AccountType.SALARY, 1))
+                .thenReturn(profile(AccountType.SAVING, 1));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "SALARY", BALANCE));
+        assertEquals("Customer can have only one SALARY account", exception.getMessage());
+
+        // The SALARY account has since been deleted
+        assertDoesNotThrow(() -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "SALARY", BALANCE));
+        verify(accountProfileCache, times(2)).reload(CUSTOMER_ID);
+    }
+
+    @Test
+    void validate_RetailCustomerNonSavingAccount_Rejects() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(new AccountProfile(CUSTOMER_ID));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(CUSTOMER_ID, "RETAIL", "INVESTMENT", BALANCE));
+        assertEquals("Retail customers can only have SAVING accounts. Requested: INVESTMENT", exception.getMessage());
+    }
+
+    @Test
+    void validate_InvalidTypeOrMissingCustomer_RejectsWithoutLookup() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "CHECKING", BALANCE));
+        assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(null, "CORPORATE", "SAVING", BALANCE));
+        verifyNoInteractions(accountProfileCache);
+    }
+
+    @Test
+    void validate_InvestmentBelowMinimum_Rejects() {
+        // Arrange
+        when(accountProfileCache.get(CUSTOMER_ID)).thenReturn(new AccountProfile(CUSTOMER_ID));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "INVESTMENT", new BigDecimal("9999.99")));
+        assertDoesNotThrow(() -> validationService.validateAccountCreation(CUSTOMER_ID, "CORPORATE", "INVESTMENT",
+                new BigDecimal("10000.00")));
+    }
+
+    private static AccountProfile profile(AccountType type, long count) {
+        AccountProfile profile = new AccountProfile(CUSTOMER_ID);
+        profile.apply(AccountProfileCacheTest.summary(CUSTOMER_ID, type, count));
+        return profile;
+    }
+}
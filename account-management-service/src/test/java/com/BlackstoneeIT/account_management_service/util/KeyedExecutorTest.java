@@ -0,0 +1,127 @@
+package com.BlackstoneeIT.account_management_service.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedExecutorTest {
+
+    private KeyedExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void execute_SameKey_RunsInSubmissionOrder() throws InterruptedException {
+        executor = new KeyedExecutor("test", 4, 100);
+        List<Integer> completed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            int task = i;
+            executor.execute(1000001L, () -> {
+                completed.add(task);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 50).boxed().toList(), completed);
+    }
+
+    @Test
+    void execute_KeysOnDifferentStripes_RunInParallel() throws InterruptedException {
+        executor = new KeyedExecutor("test", 4, 100);
+        long first = 1000001L;
+        long second = LongStream.range(first + 1, first + 100)
+                .filter(key -> executor.stripe(key) != executor.stripe(first))
+                .findFirst().orElseThrow();
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        // Each task waits for the other; they only both finish if they run at the same time
+        executor.execute(first, () -> awaitQuietly(countDownAndGet(bothRunning)));
+        executor.execute(second, () -> awaitQuietly(countDownAndGet(bothRunning)));
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_StripeFull_WaitsForRoomAndLosesNothing() throws Exception {
+        executor = new KeyedExecutor("test", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        // The first task starts the stripe's thread directly, the second fills its queue
+        executor.execute(1L, () -> {
+            awaitQuietly(release);
+            done.countDown();
+        });
+        executor.execute(2L, done::countDown);
+        assertFalse(executor.hasCapacity());
+
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> executor.execute(3L, done::countDown));
+        Thread.sleep(300);
+        assertFalse(third.isDone());
+
+        release.countDown();
+        third.get(5, TimeUnit.SECONDS);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.hasCapacity());
+    }
+
+    @Test
+    void execute_AfterShutdown_Rejects() throws InterruptedException {
+        executor = new KeyedExecutor("test", 2, 10);
+        executor.shutdown(1, TimeUnit.SECONDS);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(1L, () -> { }));
+    }
+
+    @Test
+    void execute_StripeShutDownWhileWaiting_RejectsInsteadOfQueueing() throws Exception {
+        executor = new KeyedExecutor("test", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(1L, () -> awaitQuietly(release));
+        executor.execute(2L, () -> { });
+
+        CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> executor.execute(3L, () -> { }));
+        Thread.sleep(200);
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(() -> {
+            try {
+                executor.shutdown(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Exception rejected = assertThrows(Exception.class, () -> waiting.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, rejected.getCause());
+        release.countDown();
+        shutdown.get(5, TimeUnit.SECONDS);
+    }
+
+    private static CountDownLatch countDownAndGet(CountDownLatch latch) {
+        latch.countDown();
+        return latch;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
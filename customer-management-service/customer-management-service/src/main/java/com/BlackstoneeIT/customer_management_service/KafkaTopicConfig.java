@@ -0,0 +1,21 @@
+package com.BlackstoneeIT.customer_management_service;
+
+import com.BlackstoneeIT.customer_management_service.services.CustomerCache;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Compacted: only the latest version per customer is kept, so the topic stays small
+    @Bean
+    public NewTopic customerInvalidationsTopic() {
+        return TopicBuilder.name(CustomerCache.INVALIDATION_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
@@ -1,17 +1,35 @@
 package com.BlackstoneeIT.customer_management_service.controller;
 
 import com.BlackstoneeIT.customer_management_service.dto.*;
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.services.AccountCreationReplyService;
+import com.BlackstoneeIT.customer_management_service.services.AccountEventStreamService;
+import com.BlackstoneeIT.customer_management_service.services.AccountRequestRateLimiter;
 import com.BlackstoneeIT.customer_management_service.services.AccountStatusService;
+import com.BlackstoneeIT.customer_management_service.services.CustomerBulkImportService;
 import com.BlackstoneeIT.customer_management_service.services.CustomerServices;
+import com.BlackstoneeIT.customer_management_service.services.IdempotencyService;
+import com.BlackstoneeIT.customer_management_service.util.RequestIds;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.util.UUID;
-import com.BlackstoneeIT.customer_management_service.dto.AccountCreationResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
 import com.BlackstoneeIT.customer_management_service.dto.AccountStatusDto;
 import com.BlackstoneeIT.customer_management_service.dto.CreateCustomer;
 import com.BlackstoneeIT.customer_management_service.dto.CustomerResponse;
@@ -30,6 +48,9 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Customer Management", description = "APIs for managing customers and their bank accounts")
 public class CustomerController {
 
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private CustomerServices customerServices;
 
@@ -39,6 +60,27 @@ public class CustomerController {
     @Autowired
     private AccountStatusService accountStatusService;
 
+    @Autowired
+    private AccountEventStreamService accountEventStreamService;
+
+    @Autowired
+    private AccountCreationReplyService accountCreationReplyService;
+
+    @Autowired
+    private CustomerBulkImportService customerBulkImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRequestRateLimiter accountRequestRateLimiter;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Value("${account-status.waiters.max-wait-ms:30000}")
+    private long maxWaitMs;
+
     @Operation(
             summary = "Create a new customer",
             description = "Registers a new customer in the banking system with validated information"
@@ -57,7 +99,13 @@ public class CustomerController {
             ),
             @ApiResponse(
                     responseCode = "409",
-                    description = "Customer with provided legal ID already exists",
+                    description = "Customer with provided legal ID already exists, or a request with the same "
+                            + "Idempotency-Key is still in progress",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key was already used for a different request",
                     content = @Content
             )
     })
@@ -71,10 +119,98 @@ public class CustomerController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = CreateCustomer.class))
             )
-            @Valid @RequestBody CreateCustomer createCustomer) {
+            @Valid @RequestBody CreateCustomer createCustomer,
+
+            @Parameter(description = "Client-chosen key; a retry with the same key returns the original response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+
+        return idempotent("customers", idempotencyKey, createCustomer, CustomerResponse.class, () ->
+                ResponseEntity.status(HttpStatus.CREATED).body(customerServices.createCustomer(createCustomer)));
+    }
+
+    @Operation(
+            summary = "Search customers",
+            description = "Lists customers in ascending ID order, optionally filtered by legal ID prefix, email "
+                    + "(case-insensitive) and type. Paginate by passing the previous page's nextCursor as 'after'"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Page of customers",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CustomerPage.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Limit out of range or unknown customer type",
+                    content = @Content
+            )
+    })
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CustomerPage> searchCustomers(
+            @Parameter(description = "Legal ID prefix", example = "A1234")
+            @RequestParam(required = false) String legalIdPrefix,
+            @Parameter(description = "Exact email, case-insensitive", example = "john.doe@example.com")
+            @RequestParam(required = false) String email,
+            @Parameter(description = "Customer type", example = "RETAIL")
+            @RequestParam(required = false) CustomerType type,
+            @Parameter(description = "Cursor: return customers with an ID greater than this", example = "1000050")
+            @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size, 1-500", example = "50")
+            @RequestParam(defaultValue = "50") int limit) {
+
+        CustomerPage page = customerServices.searchCustomers(legalIdPrefix, email, type, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(
+            summary = "Create customers in bulk",
+            description = "Onboards up to 10000 customers in chunked, batched transactions. Results are streamed "
+                    + "back as NDJSON, one line per record in request order; invalid or duplicate records are "
+                    + "reported individually without aborting the rest of the import"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Import processed; see the per-record status of each line",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = BulkCustomerResult.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or oversized import",
+                    content = @Content
+            )
+    })
+    @PostMapping(
+            value = "/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> createCustomers(
+            @Parameter(
+                    description = "Customers to onboard",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BulkCreateCustomers.class))
+            )
+            @Valid @RequestBody BulkCreateCustomers request) {
 
-        CustomerResponse response = customerServices.createCustomer(createCustomer);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        StreamingResponseBody body = outputStream -> customerBulkImportService.importCustomers(
+                request.customers(), results -> {
+                    try {
+                        for (BulkCustomerResult result : results) {
+                            outputStream.write(objectMapper.writeValueAsBytes(result));
+                            outputStream.write('\n');
+                        }
+                        // Let the client see each committed chunk as soon as it is done
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @Operation(
@@ -104,10 +240,22 @@ public class CustomerController {
                     example = "1000001",
                     required = true
             )
-            @PathVariable long id) {
+            @PathVariable long id,
+            @Parameter(hidden = true) WebRequest webRequest) {
+
+        // Answer If-None-Match from the cached version, before the body is built or serialized
+        Long version = customerServices.getCustomerVersion(id);
+        String eTag = version != null ? id + "-" + version : null;
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null;
+        }
 
         CustomerResponse response = customerServices.getCustomerById(id);
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        return builder.body(response);
     }
 
     @Operation(
@@ -125,13 +273,18 @@ public class CustomerController {
                     responseCode = "404",
                     description = "Request with specified ID not found",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Too many Kafka lookups for older requests in progress; retry shortly",
+                    content = @Content
             )
     })
     @GetMapping(
             value = "/requests/{requestId}/status",
             produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<AccountStatusDto> getAccountRequestStatus(
+    public CompletableFuture<ResponseEntity<AccountStatusDto>> getAccountRequestStatus(
             @Parameter(
                     description = "UUID of the account creation request",
                     example = "a1b2c3d4-e5f6-7890-abcd-ef1234567890",
@@ -139,8 +292,99 @@ public class CustomerController {
             )
             @PathVariable String requestId) {
 
-        AccountStatusDto status = accountStatusService.getRequestStatus(requestId);
-        return ResponseEntity.ok(status);
+        // A Kafka fallback completes on the lookup pool; no servlet thread waits on the broker
+        return accountStatusService.getRequestStatus(requestId).thenApply(ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "Get account creation status for many requests",
+            description = "Resolves up to 1000 request IDs in one call, listing found, pending and unknown IDs separately"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statuses resolved",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = BatchStatusResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Empty or oversized list of request IDs",
+                    content = @Content
+            )
+    })
+    @PostMapping(
+            value = "/requests/status:batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<BatchStatusResponse> getAccountRequestStatuses(
+            @Parameter(
+                    description = "Request IDs to resolve",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = BatchStatusRequest.class))
+            )
+            @Valid @RequestBody BatchStatusRequest request) {
+
+        BatchStatusResponse response = accountStatusService.getRequestStatuses(request.requestIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(
+            summary = "Wait for account creation status",
+            description = "Long-poll variant: holds the request open until the account creation outcome " +
+                    "is consumed, or returns the current PENDING status once waitMs elapses"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Final status, or PENDING when the wait expired",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AccountStatusDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Negative waitMs",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Request with specified ID not found",
+                    content = @Content
+            )
+    })
+    @GetMapping(
+            value = "/requests/{requestId}/status",
+            params = "waitMs",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public DeferredResult<ResponseEntity<AccountStatusDto>> awaitAccountRequestStatus(
+            @Parameter(
+                    description = "UUID of the account creation request",
+                    example = "a1b2c3d4-e5f6-7890-abcd-ef1234567890",
+                    required = true
+            )
+            @PathVariable String requestId,
+
+            @Parameter(
+                    description = "Maximum time to wait for the outcome, in milliseconds",
+                    example = "10000",
+                    schema = @Schema(minimum = "0", maximum = "30000")
+            )
+            @RequestParam long waitMs) {
+
+        long boundedWaitMs = boundWait("waitMs", waitMs);
+        // Completes on the Kafka listener thread; no servlet thread is held while waiting
+        DeferredResult<ResponseEntity<AccountStatusDto>> result = new DeferredResult<>(boundedWaitMs + 1000L);
+        accountStatusService.awaitRequestStatus(requestId, boundedWaitMs)
+                .whenComplete((status, ex) -> {
+                    if (ex != null) {
+                        result.setErrorResult(ex);
+                    } else {
+                        result.setResult(ResponseEntity.ok(status));
+                    }
+                });
+        return result;
     }
 
     @Operation(
@@ -163,6 +407,21 @@ public class CustomerController {
                     responseCode = "400",
                     description = "Invalid account type or balance amount",
                     content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many account requests for this customer or client; see Retry-After",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "A request with the same Idempotency-Key is still in progress",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Idempotency-Key was already used for a different request",
+                    content = @Content
             )
     })
     @PostMapping(
@@ -190,20 +449,161 @@ public class CustomerController {
                     example = "1000.00",
                     schema = @Schema(minimum = "0", defaultValue = "0.00")
             )
-            @RequestParam(required = false, defaultValue = "0.00") BigDecimal initialBalance) {
+            @RequestParam(required = false, defaultValue = "0.00") BigDecimal initialBalance,
 
-        String requestId = UUID.randomUUID().toString();
-        customerServices.requestAccountCreation(customerId, accountType, initialBalance, requestId);
+            @Parameter(description = "Caller identity for rate limiting; only honoured from trusted gateway addresses")
+            @RequestHeader(value = CLIENT_ID_HEADER, required = false) String clientId,
 
-        AccountCreationRequestResponse response = new AccountCreationRequestResponse(
-                requestId,
-                customerId,
-                "PENDING",
-                "Account creation request has been submitted for processing",
-                "/api/v1/customers/requests/" + requestId + "/status"
-        );
+            @Parameter(description = "Client-chosen key; a retry with the same key returns the original response")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+
+            HttpServletRequest request) {
+
+        // Replays are answered before the rate limiter; new requests are rejected before any DB or Kafka work.
+        // The balance is fingerprinted by value, so 100, 100.0 and 100.00 are the same request
+        List<String> fingerprint = List.of(accountType, initialBalance.stripTrailingZeros().toPlainString());
+        return idempotent("accounts:" + customerId, idempotencyKey, fingerprint,
+                AccountCreationRequestResponse.class, () -> {
+                    accountRequestRateLimiter.acquire(customerId, clientId, request.getRemoteAddr());
 
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+                    String requestId = RequestIds.newTimeOrderedId();
+                    customerServices.requestAccountCreation(customerId, accountType, initialBalance, requestId);
+
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).body(pendingResponse(requestId, customerId));
+                });
+    }
+
+    @Operation(
+            summary = "Request account creation and wait for the outcome",
+            description = "Synchronous variant (mode=sync): blocks until the account service replies and returns " +
+                    "the final outcome inline. Falls back to 202 with a status URL when timeoutMs elapses. " +
+                    "Idempotency-Key is not supported here; use the asynchronous variant to retry safely"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Account creation outcome (SUCCESS, VALIDATION_FAILED or FAILED)",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AccountCreationResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "No reply within timeoutMs; poll the returned status URL",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = AccountCreationRequestResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Idempotency-Key sent with mode=sync, or negative timeoutMs",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Customer not found",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Too many account requests for this customer or client; see Retry-After",
+                    content = @Content
+            )
+    })
+    @PostMapping(
+            value = "/{customerId}/accounts",
+            params = "mode=sync",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public DeferredResult<ResponseEntity<?>> createAccountAndWait(
+            @Parameter(
+                    description = "Customer ID for whom to create the account",
+                    example = "1000001",
+                    required = true
+            )
+            @PathVariable Long customerId,
+
+            @Parameter(
+                    description = "Type of account to create",
+                    example = "SAVING",
+                    required = true,
+                    schema = @Schema(allowableValues = {"SAVING", "SALARY", "INVESTMENT"})
+            )
+            @RequestParam String accountType,
+
+            @Parameter(
+                    description = "Initial deposit amount",
+                    example = "1000.00",
+                    schema = @Schema(minimum = "0", defaultValue = "0.00")
+            )
+            @RequestParam(required = false, defaultValue = "0.00") BigDecimal initialBalance,
+
+            @Parameter(
+                    description = "Maximum time to wait for the reply, in milliseconds",
+                    example = "5000",
+                    schema = @Schema(minimum = "0", maximum = "30000", defaultValue = "5000")
+            )
+            @RequestParam(required = false, defaultValue = "5000") long timeoutMs,
+
+            @Parameter(description = "Caller identity for rate limiting; only honoured from trusted gateway addresses")
+            @RequestHeader(value = CLIENT_ID_HEADER, required = false) String clientId,
+
+            @Parameter(description = "Not supported with mode=sync; sending it is rejected with 400")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+
+            HttpServletRequest request) {
+
+        // The outcome arrives after the response has been committed to, so there is nothing to store under
+        // the key; refuse it rather than publish a duplicate request on every retry
+        if (idempotencyKey != null) {
+            throw new IllegalArgumentException(IDEMPOTENCY_KEY_HEADER + " is not supported with mode=sync; "
+                    + "send the request without mode=sync and poll its status URL");
+        }
+
+        long boundedTimeoutMs = boundWait("timeoutMs", timeoutMs);
+        accountRequestRateLimiter.acquire(customerId, clientId, request.getRemoteAddr());
+
+        String requestId = RequestIds.newTimeOrderedId();
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(boundedTimeoutMs + 1000L);
+        accountCreationReplyService.requestAndAwait(
+                        customerId, accountType, initialBalance, requestId, boundedTimeoutMs)
+                .whenComplete((reply, ex) -> {
+                    if (ex != null) {
+                        result.setErrorResult(ex);
+                    } else if (reply != null) {
+                        result.setResult(ResponseEntity.ok(reply));
+                    } else {
+                        result.setResult(ResponseEntity.status(HttpStatus.ACCEPTED)
+                                .body(pendingResponse(requestId, customerId)));
+                    }
+                });
+        return result;
+    }
+
+    @Operation(
+            summary = "Stream account creation outcomes",
+            description = "Server-Sent Events stream pushing every account creation outcome for the customer " +
+                    "as it is consumed. Slow clients may miss the oldest events"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Event stream opened",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AccountCreationResponse.class))
+            )
+    })
+    @GetMapping(
+            value = "/{customerId}/accounts/events",
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public SseEmitter streamAccountEvents(
+            @Parameter(
+                    description = "Customer ID whose account creation outcomes to stream",
+                    example = "1000001",
+                    required = true
+            )
+            @PathVariable Long customerId) {
+
+        return accountEventStreamService.subscribe(customerId);
     }
 
     @Operation(
@@ -216,4 +616,32 @@ public class CustomerController {
         kafkaTemplate.send("test_topic", "Test message from Customer Service");
         return ResponseEntity.ok("Test message sent to Kafka");
     }
+
+    private <T> ResponseEntity<T> idempotent(String scope, String idempotencyKey, Object request,
+                                             Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        return idempotencyKey != null
+                ? idempotencyService.execute(scope, idempotencyKey, request, responseType, action)
+                : action.get();
+    }
+
+    private AccountCreationRequestResponse pendingResponse(String requestId, Long customerId) {
+        return new AccountCreationRequestResponse(
+                requestId,
+                customerId,
+                "PENDING",
+                "Account creation request has been submitted for processing",
+                "/api/v1/customers/requests/" + requestId + "/status"
+        );
+    }
+
+    /**
+     * Rejects negative waits and caps the rest at {@code account-status.waiters.max-wait-ms},
+     * so the servlet async timeout never outlives the waiter it is holding the request for.
+     */
+    private long boundWait(String name, long waitMs) {
+        if (waitMs < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        return Math.min(waitMs, maxWaitMs);
+    }
 }
\ No newline at end of file
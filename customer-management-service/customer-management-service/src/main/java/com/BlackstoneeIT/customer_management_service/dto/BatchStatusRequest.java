@@ -0,0 +1,15 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request ids whose account creation status should be resolved")
+public record BatchStatusRequest(
+        @NotEmpty(message = "At least one request ID is required")
+        @Size(max = 1000, message = "At most 1000 request IDs can be queried at once")
+        List<@NotBlank(message = "Request ID must not be blank") String> requestIds
+) {}
@@ -0,0 +1,24 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@Builder
+@Schema(description = "Batch account creation status, split by resolution")
+public class BatchStatusResponse {
+
+    @Schema(description = "Requests with a final outcome (SUCCESS, VALIDATION_FAILED or FAILED)")
+    private List<AccountStatusDto> found;
+
+    @Schema(description = "Request ids known but still being processed")
+    private List<String> pending;
+
+    @Schema(description = "Request ids that could not be found")
+    private List<String> unknown;
+}
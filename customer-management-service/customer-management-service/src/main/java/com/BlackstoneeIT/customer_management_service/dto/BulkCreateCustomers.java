@@ -0,0 +1,16 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+// Records are validated one by one during the import, so one bad record does not reject the batch
+@Schema(description = "Customers to onboard in one request")
+public record BulkCreateCustomers(
+        @NotEmpty(message = "At least one customer is required")
+        @Size(max = 10000, message = "At most 10000 customers can be imported at once")
+        List<@NotNull(message = "Customer record must not be null") CreateCustomer> customers
+) {}
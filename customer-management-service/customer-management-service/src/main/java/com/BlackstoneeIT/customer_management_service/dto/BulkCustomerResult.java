@@ -0,0 +1,20 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+import com.BlackstoneeIT.customer_management_service.enums.BulkCustomerStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+
+@Builder
+@Schema(description = "Outcome of one record of a bulk customer import, streamed as a line of NDJSON")
+public record BulkCustomerResult(
+        @Schema(description = "Position of the record in the request", example = "0")
+        int index,
+        @Schema(description = "Legal ID of the record", example = "A123456789")
+        String legalID,
+        @Schema(description = "Outcome of the record", example = "CREATED")
+        BulkCustomerStatus status,
+        @Schema(description = "Assigned customer ID when created", example = "1000001")
+        Long customerId,
+        @Schema(description = "Reason the record was not created")
+        String message
+) {}
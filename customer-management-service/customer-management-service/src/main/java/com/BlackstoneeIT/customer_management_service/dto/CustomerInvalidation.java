@@ -0,0 +1,8 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+/**
+ * Broadcast on the compacted customer-invalidations topic (keyed by customer id) whenever a
+ * customer row is saved; {@code version} is its updated_date in epoch millis.
+ */
+public record CustomerInvalidation(Long customerId, Long version) {
+}
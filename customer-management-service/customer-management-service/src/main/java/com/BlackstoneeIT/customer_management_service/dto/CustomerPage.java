@@ -0,0 +1,14 @@
+package com.BlackstoneeIT.customer_management_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a customer search")
+public record CustomerPage(
+        @Schema(description = "Customers of this page, in ascending ID order")
+        List<CustomerResponse> customers,
+        @Schema(description = "Value for the 'after' parameter of the next page; absent on the last page",
+                example = "1000050")
+        Long nextCursor
+) {}
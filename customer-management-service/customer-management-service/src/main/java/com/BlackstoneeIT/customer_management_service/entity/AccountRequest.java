@@ -0,0 +1,70 @@
+package com.BlackstoneeIT.customer_management_service.entity;
+
+import com.BlackstoneeIT.customer_management_service.enums.AccountRequestStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "account_requests", schema = "customer_db")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountRequest implements Persistable<String> {
+    @Id
+    @Column(name = "request_id", nullable = false)
+    private String requestId;
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+    @Column(name = "account_type", nullable = false)
+    private String accountType;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private AccountRequestStatus status;
+    @Column(name = "account_id")
+    private Long accountId;
+    @Column(name = "message")
+    private String message;
+    @Column(name = "error_code")
+    private String errorCode;
+    @Column(name = "created_date")
+    private LocalDateTime createdDate;
+    @Column(name = "updated_date")
+    private LocalDateTime updatedDate;
+
+    // Request ids are assigned by the caller, so tell Spring Data to INSERT instead of merge-with-SELECT
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public String getId() {
+        return requestId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdDate = LocalDateTime.now();
+        updatedDate = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedDate = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+}
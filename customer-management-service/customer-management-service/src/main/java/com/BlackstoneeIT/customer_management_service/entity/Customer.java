@@ -4,6 +4,7 @@ import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import lombok.*;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 
@@ -14,7 +15,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class Customer {
+public class Customer implements Persistable<Long> {
     @Id
     @Column(name = "id", unique = true, nullable = false)
     private Long id;
@@ -37,6 +38,17 @@ public class Customer {
     private LocalDateTime createdDate;
     @Column(name = "updated_date")
     private LocalDateTime updatedDate;
+
+    // Ids come from CustomerIdGeneratorService, so tell Spring Data to INSERT instead of merge-with-SELECT
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdDate = LocalDateTime.now();
@@ -48,5 +60,9 @@ public class Customer {
         updatedDate = LocalDateTime.now();
     }
 
-
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
 }
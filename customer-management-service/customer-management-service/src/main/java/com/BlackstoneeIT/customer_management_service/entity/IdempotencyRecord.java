@@ -0,0 +1,34 @@
+package com.BlackstoneeIT.customer_management_service.entity;
+
+import com.BlackstoneeIT.customer_management_service.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", schema = "customer_db")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    // Endpoint scope and client key, e.g. "accounts:1000001:<key>"
+    @Id
+    @Column(name = "id", nullable = false)
+    private String id;
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private IdempotencyStatus status;
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    @Column(name = "response_body")
+    private String responseBody;
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
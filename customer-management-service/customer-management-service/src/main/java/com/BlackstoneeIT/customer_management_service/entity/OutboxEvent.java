@@ -0,0 +1,44 @@
+package com.BlackstoneeIT.customer_management_service.entity;
+
+import com.BlackstoneeIT.customer_management_service.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox", schema = "customer_db")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    @Column(name = "topic", nullable = false)
+    private String topic;
+    @Column(name = "message_key")
+    private String messageKey;
+    @Column(name = "payload", nullable = false)
+    private String payload;
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    @Builder.Default
+    private OutboxStatus status = OutboxStatus.PENDING;
+    // Failed publishes that were not just the broker being unavailable
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+    @Column(name = "last_error")
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        createdDate = LocalDateTime.now();
+    }
+}
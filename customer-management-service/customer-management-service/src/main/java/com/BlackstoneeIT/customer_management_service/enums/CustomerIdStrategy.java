@@ -0,0 +1,5 @@
+package com.BlackstoneeIT.customer_management_service.enums;
+
+public enum CustomerIdStrategy {
+    BLOCK, PERMUTED, RANDOM
+}
@@ -0,0 +1,5 @@
+package com.BlackstoneeIT.customer_management_service.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS, COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.BlackstoneeIT.customer_management_service.exception;
+
+public class DuplicateCustomerException extends RuntimeException {
+    public DuplicateCustomerException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.BlackstoneeIT.customer_management_service.exception;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.BlackstoneeIT.customer_management_service.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.BlackstoneeIT.customer_management_service.exception;
+
+public class RequestNotFoundException extends RuntimeException {
+    public RequestNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,22 @@
+package com.BlackstoneeIT.customer_management_service.repository;
+
+import com.BlackstoneeIT.customer_management_service.entity.AccountRequest;
+import com.BlackstoneeIT.customer_management_service.enums.AccountRequestStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountRequestRepository extends JpaRepository<AccountRequest, String> {
+
+    // Only a PENDING row can move to a final state, so replayed responses are no-ops
+    @Modifying
+    @Query("UPDATE AccountRequest r SET r.status = :status, r.accountId = :accountId, r.message = :message, " +
+            "r.errorCode = :errorCode, r.updatedDate = CURRENT_TIMESTAMP " +
+            "WHERE r.requestId = :requestId AND r.status = com.BlackstoneeIT.customer_management_service.enums.AccountRequestStatus.PENDING")
+    int completePendingRequest(@Param("requestId") String requestId,
+                               @Param("status") AccountRequestStatus status,
+                               @Param("accountId") Long accountId,
+                               @Param("message") String message,
+                               @Param("errorCode") String errorCode);
+}
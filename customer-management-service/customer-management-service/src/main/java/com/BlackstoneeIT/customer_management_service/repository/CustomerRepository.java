@@ -2,7 +2,42 @@ package com.BlackstoneeIT.customer_management_service.repository;
 
 import com.BlackstoneeIT.customer_management_service.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
     Object getCustomersById(long id);
+
+    // Start of the next block of ids reserved for this node
+    @Query(value = "SELECT nextval('customer_db.customer_id_block_seq')", nativeQuery = true)
+    long nextCustomerIdBlock();
+
+    // Ids in the range already taken, e.g. by the earlier random generator
+    @Query("SELECT c.id FROM Customer c WHERE c.id BETWEEN :from AND :to")
+    List<Long> findIdsBetween(@Param("from") Long from, @Param("to") Long to);
+
+    @Query("SELECT c.id FROM Customer c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    boolean existsByLegalID(String legalID);
+
+    @Query("SELECT c.legalID FROM Customer c WHERE c.legalID IN :legalIds")
+    List<String> findExistingLegalIds(@Param("legalIds") Collection<String> legalIds);
+
+    // Streamed in fetch-size pages so the whole table is never held in memory; needs a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT c.id, c.Type FROM Customer c")
+    Stream<Object[]> streamIdsAndTypes();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT c.legalID FROM Customer c")
+    Stream<String> streamLegalIds();
 }
@@ -0,0 +1,40 @@
+package com.BlackstoneeIT.customer_management_service.repository;
+
+import com.BlackstoneeIT.customer_management_service.entity.Customer;
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Filters of the customer search. Each one matches an index added in V4, and is left out
+ * (null) when its parameter is not given.
+ */
+public final class CustomerSpecifications {
+
+    private CustomerSpecifications() {
+    }
+
+    // Keyset cursor: only rows after the last id of the previous page
+    public static Specification<Customer> idAfter(Long after) {
+        return after == null ? null : (root, query, cb) -> cb.greaterThan(root.get("id"), after);
+    }
+
+    public static Specification<Customer> legalIdStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(root.get("legalID"), pattern, '\\');
+    }
+
+    public static Specification<Customer> emailEqualsIgnoreCase(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        String lowered = email.trim().toLowerCase();
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("email")), lowered);
+    }
+
+    public static Specification<Customer> hasType(CustomerType type) {
+        return type == null ? null : (root, query, cb) -> cb.equal(root.get("Type"), type);
+    }
+}
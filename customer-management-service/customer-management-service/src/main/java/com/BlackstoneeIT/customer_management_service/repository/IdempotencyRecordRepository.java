@@ -0,0 +1,51 @@
+package com.BlackstoneeIT.customer_management_service.repository;
+
+import com.BlackstoneeIT.customer_management_service.entity.IdempotencyRecord;
+import com.BlackstoneeIT.customer_management_service.enums.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claims the key unless a live row holds it; an expired row (finished or abandoned) is taken over
+    @Modifying
+    @Query(value = "INSERT INTO customer_db.idempotency_keys (id, request_hash, status, created_date, expires_at) " +
+            "VALUES (:id, :requestHash, 'IN_PROGRESS', :now, :expiresAt) " +
+            "ON CONFLICT (id) DO UPDATE SET request_hash = EXCLUDED.request_hash, status = EXCLUDED.status, " +
+            "response_status = NULL, response_body = NULL, created_date = EXCLUDED.created_date, " +
+            "expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_keys.expires_at < :now",
+            nativeQuery = true)
+    int reserve(@Param("id") String id,
+                @Param("requestHash") String requestHash,
+                @Param("now") LocalDateTime now,
+                @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.responseStatus = :responseStatus, " +
+            "r.responseBody = :responseBody, r.expiresAt = :expiresAt WHERE r.id = :id")
+    int complete(@Param("id") String id,
+                 @Param("status") IdempotencyStatus status,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Pushes back when an unfinished reservation may be taken over
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt WHERE r.id = :id AND r.status = :status")
+    int extend(@Param("id") String id,
+               @Param("status") IdempotencyStatus status,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = :status")
+    int deleteByIdAndStatus(@Param("id") String id, @Param("status") IdempotencyStatus status);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,17 @@
+package com.BlackstoneeIT.customer_management_service.repository;
+
+import com.BlackstoneeIT.customer_management_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest pending rows first; rows locked by another relay instance are skipped, not waited on
+    @Query(value = "SELECT * FROM customer_db.outbox WHERE status = 'PENDING' ORDER BY id LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,56 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-reply on top of the asynchronous account creation flow, correlated on the requestId
+ * the same way a ReplyingKafkaTemplate correlates on its correlation header.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountCreationReplyService {
+
+    private final CustomerServices customerServices;
+    private final AccountResponseWaiters accountResponseWaiters;
+
+    /**
+     * Submits the request and completes with its reply, or with {@code null} when no reply
+     * arrived within {@code timeoutMs} (or no waiter slot was free) and the caller should fall
+     * back to the asynchronous status URL.
+     */
+    public CompletableFuture<AccountCreationResponse> requestAndAwait(
+            Long customerId, String accountType, BigDecimal initialBalance, String requestId, long timeoutMs) {
+
+        // Register before publishing so a fast reply cannot be missed
+        CompletableFuture<AccountCreationResponse> reply = accountResponseWaiters.register(requestId);
+        try {
+            customerServices.requestAccountCreation(customerId, accountType, initialBalance, requestId);
+        } catch (RuntimeException e) {
+            if (reply != null) {
+                reply.cancel(false);
+            }
+            throw e;
+        }
+
+        if (reply == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return reply
+                .orTimeout(Math.min(timeoutMs, accountResponseWaiters.getMaxWaitMs()), TimeUnit.MILLISECONDS)
+                .handle((response, ex) -> {
+                    if (ex != null) {
+                        log.debug("No reply for request {} within {} ms", requestId, timeoutMs);
+                        return null;
+                    }
+                    return response;
+                });
+    }
+}
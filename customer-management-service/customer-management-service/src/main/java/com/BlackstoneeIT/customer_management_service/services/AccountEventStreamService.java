@@ -0,0 +1,172 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans account creation outcomes out to Server-Sent Events subscribers, per customer.
+ * Each connection gets its own bounded buffer; when a slow client falls behind the oldest
+ * undelivered event is dropped so the Kafka listener thread never blocks on a socket.
+ */
+@Service
+@Slf4j
+public class AccountEventStreamService {
+
+    private static final String EVENT_NAME = "account-creation";
+
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final long emitterTimeoutMs;
+    private final int bufferSize;
+
+    public AccountEventStreamService(
+            @Value("${account-events.sse.timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${account-events.sse.buffer-size:64}") int bufferSize,
+            @Value("${account-events.sse.sender-threads:4}") int senderThreads) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.bufferSize = bufferSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "account-events-sse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long customerId) {
+        return subscribe(customerId, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(Long customerId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(customerId, emitter, bufferSize);
+
+        subscribers.compute(customerId, (id, set) -> {
+            Set<Subscriber> registered = set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(subscriber);
+            return registered;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+
+        log.info("SSE subscriber registered for customer: {}", customerId);
+        return emitter;
+    }
+
+    public void publish(AccountCreationResponse response) {
+        if (response == null || response.getCustomerId() == null) {
+            return;
+        }
+        Set<Subscriber> customerSubscribers = subscribers.get(response.getCustomerId());
+        if (customerSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : customerSubscribers) {
+            subscriber.offer(response);
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            AccountCreationResponse next;
+            while ((next = subscriber.poll()) != null) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(next.getRequestId())
+                        .name(EVENT_NAME)
+                        .data(next, MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("SSE subscriber for customer {} disconnected: {}", subscriber.customerId, e.getMessage());
+            unsubscribe(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have been buffered after the last poll but before draining was released
+        if (subscriber.hasPending()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.customerId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        long dropped = subscriber.droppedCount();
+        if (dropped > 0) {
+            log.info("SSE subscriber for customer {} closed after dropping {} events",
+                    subscriber.customerId, dropped);
+        }
+    }
+
+    // Events dropped so far for the customer's open connections
+    long droppedCount(Long customerId) {
+        Set<Subscriber> customerSubscribers = subscribers.get(customerId);
+        return customerSubscribers == null ? 0
+                : customerSubscribers.stream().mapToLong(Subscriber::droppedCount).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final Long customerId;
+        private final SseEmitter emitter;
+        private final ArrayDeque<AccountCreationResponse> buffer;
+        private final int capacity;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private long dropped;
+
+        private Subscriber(Long customerId, SseEmitter emitter, int capacity) {
+            this.customerId = customerId;
+            this.emitter = emitter;
+            this.capacity = capacity;
+            this.buffer = new ArrayDeque<>(capacity);
+        }
+
+        private synchronized void offer(AccountCreationResponse response) {
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                dropped++;
+            }
+            buffer.addLast(response);
+        }
+
+        private synchronized AccountCreationResponse poll() {
+            return buffer.pollFirst();
+        }
+
+        private synchronized boolean hasPending() {
+            return !buffer.isEmpty();
+        }
+
+        private synchronized long droppedCount() {
+            return dropped;
+        }
+    }
+}
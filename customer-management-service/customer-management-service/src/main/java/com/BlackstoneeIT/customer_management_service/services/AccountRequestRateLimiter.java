@@ -0,0 +1,194 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Token buckets for account creation requests, one keyed by customer (limits per
+ * {@link CustomerType}) and one by client. Each bucket is a single long in a fixed array of
+ * stripes holding its theoretical arrival time (GCRA), updated with a CAS, so checking a
+ * request takes no lock and allocates nothing. Keys that hash to the same stripe share a
+ * bucket, which can only make the limit stricter for them; size the stripes well above the
+ * number of customers active within a minute. Clients are identified by remote address; the
+ * X-Client-Id header is only honoured from allow-listed addresses (e.g. an API gateway), since
+ * anyone else could send a fresh value with every request.
+ */
+@Service
+@Slf4j
+public class AccountRequestRateLimiter {
+
+    private static final String PREFIX = "account-requests.rate-limit.";
+
+    private final CustomerTypeIndex customerTypeIndex;
+    private final boolean enabled;
+    private final AtomicLongArray customerBuckets;
+    private final AtomicLongArray clientBuckets;
+    private final int mask;
+    private final Map<CustomerType, Limit> customerLimits = new EnumMap<>(CustomerType.class);
+    private final Limit unknownCustomerLimit;
+    private final Limit clientLimit;
+    private final Set<String> trustedClientAddresses;
+    private final LongSupplier nanoTime;
+    // Bucket times are relative to start-up so that 0 always means "full bucket"
+    private final long origin;
+    private final Counter customerRejections;
+    private final Counter clientRejections;
+
+    @Autowired
+    public AccountRequestRateLimiter(
+            CustomerTypeIndex customerTypeIndex,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${account-requests.rate-limit.enabled:true}") boolean enabled,
+            @Value("${account-requests.rate-limit.stripes:65536}") int stripes,
+            @Value("${account-requests.rate-limit.client.per-minute:600}") int clientPerMinute,
+            @Value("${account-requests.rate-limit.client.burst:50}") int clientBurst,
+            @Value("${account-requests.rate-limit.client.trusted-addresses:}") String trustedClientAddresses) {
+        this(customerTypeIndex, environment, meterRegistry, enabled, stripes, clientPerMinute, clientBurst,
+                trustedClientAddresses, System::nanoTime);
+    }
+
+    AccountRequestRateLimiter(
+            CustomerTypeIndex customerTypeIndex,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            boolean enabled,
+            int stripes,
+            int clientPerMinute,
+            int clientBurst,
+            String trustedClientAddresses,
+            LongSupplier nanoTime) {
+        this.customerTypeIndex = customerTypeIndex;
+        this.enabled = enabled;
+        this.nanoTime = nanoTime;
+        this.origin = nanoTime.getAsLong() - TimeUnit.HOURS.toNanos(1);
+        this.trustedClientAddresses = Arrays.stream(trustedClientAddresses.split(","))
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        int size = Integer.highestOneBit(Math.max(2, stripes - 1)) << 1;
+        this.customerBuckets = new AtomicLongArray(size);
+        this.clientBuckets = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        Limit strictest = null;
+        for (CustomerType type : CustomerType.values()) {
+            String key = PREFIX + "customer." + type.name().toLowerCase(Locale.ROOT);
+            Limit limit = Limit.of(
+                    environment.getProperty(key + ".per-minute", Integer.class, 10),
+                    environment.getProperty(key + ".burst", Integer.class, 3));
+            customerLimits.put(type, limit);
+            if (strictest == null || limit.interval > strictest.interval) {
+                strictest = limit;
+            }
+        }
+        // Customers not in the type index yet get the strictest limit rather than a DB read
+        this.unknownCustomerLimit = strictest;
+        this.clientLimit = Limit.of(clientPerMinute, clientBurst);
+
+        this.customerRejections = Counter.builder("account-requests.rate-limit.rejections")
+                .tag("key", "customer")
+                .description("Account requests rejected by the per-customer limit")
+                .register(meterRegistry);
+        this.clientRejections = Counter.builder("account-requests.rate-limit.rejections")
+                .tag("key", "client")
+                .description("Account requests rejected by the per-client limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from the client's and the customer's bucket.
+     *
+     * @param clientId      the X-Client-Id header, or {@code null}; ignored unless the request comes
+     *                      from a trusted address
+     * @param remoteAddress the caller's address
+     * @throws RateLimitExceededException when either bucket is empty; neither is charged
+     */
+    public void acquire(Long customerId, String clientId, String remoteAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = nanoTime.getAsLong() - origin;
+
+        String clientKey = clientId != null && trustedClientAddresses.contains(remoteAddress) ? clientId : remoteAddress;
+        int clientSlot = slot(mix(clientKey != null ? clientKey.hashCode() : 0));
+        long clientWait = tryAcquire(clientBuckets, clientSlot, now, clientLimit);
+        if (clientWait > 0) {
+            clientRejections.increment();
+            throw rejected("Too many account requests from this client", clientWait);
+        }
+
+        CustomerType type = customerTypeIndex.find(customerId);
+        Limit limit = type != null ? customerLimits.get(type) : unknownCustomerLimit;
+        long customerWait = tryAcquire(customerBuckets, slot(mix(customerId)), now, limit);
+        if (customerWait > 0) {
+            // Give the client its token back
+            clientBuckets.addAndGet(clientSlot, -clientLimit.interval);
+            customerRejections.increment();
+            log.debug("Account request for customer {} rate limited, retry in {} ms",
+                    customerId, TimeUnit.NANOSECONDS.toMillis(customerWait));
+            throw rejected("Too many account requests for customer " + customerId, customerWait);
+        }
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    private static long tryAcquire(AtomicLongArray buckets, int slot, long now, Limit limit) {
+        while (true) {
+            long arrival = buckets.get(slot);
+            long next = Math.max(arrival, now) + limit.interval;
+            long allowedAt = next - limit.capacity;
+            if (allowedAt > now) {
+                return allowedAt - now;
+            }
+            if (buckets.compareAndSet(slot, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private RateLimitExceededException rejected(String message, long waitNanos) {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new RateLimitExceededException(message, seconds);
+    }
+
+    private int slot(long hash) {
+        return (int) hash & mask;
+    }
+
+    // SplitMix64 finalizer, spreads sequential ids across the stripes
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * @param interval nanoseconds between tokens
+     * @param capacity nanoseconds of credit a full bucket holds (burst tokens)
+     */
+    private record Limit(long interval, long capacity) {
+        static Limit of(int perMinute, int burst) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            return new Limit(interval, interval * Math.max(1, burst));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.BlackstoneeIT.customer_management_service.entity.AccountRequest;
+import com.BlackstoneeIT.customer_management_service.enums.AccountRequestStatus;
+import com.BlackstoneeIT.customer_management_service.repository.AccountRequestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Durable lifecycle of account creation requests: a PENDING row is written with the request,
+ * and the response consumer moves it to its final state.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountRequestService {
+
+    private final AccountRequestRepository accountRequestRepository;
+
+    @Transactional
+    public AccountRequest createPending(String requestId, Long customerId, String accountType) {
+        AccountRequest request = AccountRequest.builder()
+                .requestId(requestId)
+                .customerId(customerId)
+                .accountType(accountType)
+                .status(AccountRequestStatus.PENDING)
+                .message("Account creation request has been submitted for processing")
+                .build();
+        return accountRequestRepository.save(request);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AccountRequest> findByRequestId(String requestId) {
+        return accountRequestRepository.findById(requestId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountRequest> findAllByRequestIds(Collection<String> requestIds) {
+        return accountRequestRepository.findAllById(requestIds);
+    }
+
+    // Shared group id: each response is applied once across all instances
+    @KafkaListener(
+            topics = "account-creation-responses",
+            groupId = "${spring.application.name}-request-status"
+    )
+    @Transactional
+    public void completeRequest(@Payload AccountCreationResponse response) {
+        if (response == null || response.getRequestId() == null) {
+            return;
+        }
+        int updated = accountRequestRepository.completePendingRequest(
+                response.getRequestId(),
+                toStatus(response.getStatus()),
+                response.getAccountId(),
+                response.getMessage(),
+                response.getErrorCode()
+        );
+        if (updated == 0) {
+            log.debug("No pending account request to complete for request: {}", response.getRequestId());
+        } else {
+            log.info("Account request {} completed with status {}", response.getRequestId(), response.getStatus());
+        }
+    }
+
+    private AccountRequestStatus toStatus(String status) {
+        try {
+            return AccountRequestStatus.valueOf(status);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.warn("Unknown account creation status '{}', recording as FAILED", status);
+            return AccountRequestStatus.FAILED;
+        }
+    }
+}
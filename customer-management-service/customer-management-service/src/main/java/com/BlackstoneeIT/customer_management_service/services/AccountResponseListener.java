@@ -0,0 +1,52 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Single long-lived consumer of account-creation-responses. Every instance joins its own
+ * group so each node sees every response, and on assignment it rewinds only as far as the
+ * store TTL instead of replaying the whole topic.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountResponseListener implements ConsumerSeekAware {
+
+    private final AccountResponseStore accountResponseStore;
+    private final AccountResponseWaiters accountResponseWaiters;
+    private final AccountEventStreamService accountEventStreamService;
+
+    @KafkaListener(
+            topics = "account-creation-responses",
+            groupId = "${spring.application.name}-status-${random.uuid}"
+    )
+    public void onAccountCreationResponse(
+            @Payload AccountCreationResponse response,
+            @Header(name = KafkaHeaders.CORRELATION_ID, required = false) byte[] correlationId) {
+        log.debug("Received account creation response: {}", response);
+        accountResponseStore.put(response);
+        // Replies from older producers carry no correlation header; the requestId key is the same value
+        accountResponseWaiters.complete(
+                correlationId != null ? new String(correlationId, StandardCharsets.UTF_8) : response.getRequestId(),
+                response);
+        accountEventStreamService.publish(response);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        long from = System.currentTimeMillis() - accountResponseStore.getTtl().toMillis();
+        callback.seekToTimestamp(assignments.keySet(), from);
+    }
+}
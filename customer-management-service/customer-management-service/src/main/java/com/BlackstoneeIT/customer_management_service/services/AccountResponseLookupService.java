@@ -0,0 +1,147 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight front for Kafka response lookups. Concurrent callers asking for the same
+ * requestId and submission time share one lookup, and misses are remembered briefly so a retry
+ * storm on an unknown id does not re-scan the topic on every call. Only a scan that read the
+ * whole topic counts as a miss; a failed or timed-out lookup is retried by the next caller.
+ * Lookups run on a small bounded pool of their own, so callers are handed a future instead of
+ * blocking on the broker.
+ */
+@Service
+@Slf4j
+public class AccountResponseLookupService {
+
+    private final KafkaTopicReaderService kafkaTopicReaderService;
+    private final ExecutorService lookupExecutor;
+    private final ConcurrentHashMap<String, CompletableFuture<AccountCreationResponse>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> recentMisses;
+    private final Counter executedLookups;
+    private final Counter coalescedLookups;
+    private final Counter negativeHits;
+
+    public AccountResponseLookupService(
+            KafkaTopicReaderService kafkaTopicReaderService,
+            @Value("${account-status.lookup.negative-ttl:PT5S}") Duration negativeTtl,
+            @Value("${account-status.lookup.negative-max-size:10000}") long negativeMaxSize,
+            @Value("${account-status.lookup.threads:4}") int lookupThreads,
+            @Value("${account-status.lookup.queue-capacity:64}") int lookupQueueCapacity,
+            MeterRegistry meterRegistry) {
+        this.kafkaTopicReaderService = kafkaTopicReaderService;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Separate from the partition-scan pool: a lookup waits on its scans and must not take their threads
+        this.lookupExecutor = new ThreadPoolExecutor(lookupThreads, lookupThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(lookupQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "status-lookup-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.recentMisses = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(negativeTtl)
+                .build();
+        this.executedLookups = lookupCounter(meterRegistry, "executed");
+        this.coalescedLookups = lookupCounter(meterRegistry, "coalesced");
+        this.negativeHits = lookupCounter(meterRegistry, "negative-cached");
+        Gauge.builder("account-status.kafka.lookups.in-flight", inFlight, ConcurrentHashMap::size)
+                .description("Distinct request ids with a Kafka lookup in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks the response up in Kafka, joining an identical lookup already in progress.
+     *
+     * @param submittedAt epoch millis the request was submitted at, when known
+     * @return completes with the response, or {@code null} when it is not in the topic; fails with
+     * {@link RejectedExecutionException} when the lookup pool is saturated
+     */
+    public CompletableFuture<AccountCreationResponse> findResponse(String requestId, Long submittedAt) {
+        // A lookup from another submission time reads a different part of the topic, so it is not the same lookup
+        String key = requestId + "@" + submittedAt;
+        if (recentMisses.getIfPresent(key) != null) {
+            negativeHits.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<AccountCreationResponse> lookup = new CompletableFuture<>();
+        CompletableFuture<AccountCreationResponse> existing = inFlight.putIfAbsent(key, lookup);
+        if (existing != null) {
+            coalescedLookups.increment();
+            // A copy, so one caller timing out or cancelling does not complete the lookup for the others
+            return existing.copy();
+        }
+
+        // This caller leads; everyone arriving until it finishes shares its result
+        executedLookups.increment();
+        try {
+            lookupExecutor.execute(() -> {
+                // Leave the in-flight map before completing, so a caller arriving afterwards starts afresh
+                AccountCreationResponse response;
+                try {
+                    response = lookUp(requestId, submittedAt, key);
+                } catch (RuntimeException e) {
+                    inFlight.remove(key, lookup);
+                    lookup.completeExceptionally(e);
+                    return;
+                }
+                inFlight.remove(key, lookup);
+                lookup.complete(response);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Status lookup pool saturated, skipping Kafka lookup for request {}", requestId);
+            inFlight.remove(key, lookup);
+            lookup.completeExceptionally(e);
+        }
+        return lookup.copy();
+    }
+
+    private AccountCreationResponse lookUp(String requestId, Long submittedAt, String key) {
+        AccountCreationResponse response = kafkaTopicReaderService.findResponseByRequestId(requestId, submittedAt);
+        if (response == null) {
+            // The quick poll cannot tell a miss from a failure; the full scan decides
+            KafkaTopicReaderService.ScanResult scan =
+                    kafkaTopicReaderService.scanResponses(Set.of(requestId), submittedAt);
+            response = scan.responses().get(requestId);
+            if (response == null && scan.complete()) {
+                recentMisses.put(key, Boolean.TRUE);
+            }
+        }
+        return response;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("account-status.kafka.lookups")
+                .description("Kafka response lookups by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,54 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Local, bounded view of the account-creation-responses topic keyed by requestId.
+ * Filled by {@link AccountResponseListener}; entries expire after the configured TTL.
+ */
+@Service
+@Slf4j
+public class AccountResponseStore {
+
+    private final Cache<String, AccountCreationResponse> responses;
+    private final Duration ttl;
+
+    public AccountResponseStore(
+            @Value("${account-status.store.max-size:100000}") long maxSize,
+            @Value("${account-status.store.ttl:PT1H}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Exposes cache.gets{result=hit|miss}, cache.evictions and cache.size under /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "account-responses");
+    }
+
+    public void put(AccountCreationResponse response) {
+        if (response == null || response.getRequestId() == null) {
+            return;
+        }
+        responses.put(response.getRequestId(), response);
+        log.debug("Stored account creation response for request: {}", response.getRequestId());
+    }
+
+    public AccountCreationResponse get(String requestId) {
+        return responses.getIfPresent(requestId);
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,91 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of callers waiting for the response to a given requestId. Completed by
+ * {@link AccountResponseListener}; holds at most {@code max-waiters} entries across all ids.
+ */
+@Service
+@Slf4j
+public class AccountResponseWaiters {
+
+    private final ConcurrentHashMap<String, Set<CompletableFuture<AccountCreationResponse>>> waiters =
+            new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+    private final long maxWaitMs;
+
+    public AccountResponseWaiters(
+            @Value("${account-status.waiters.max-waiters:10000}") int capacity,
+            @Value("${account-status.waiters.max-wait-ms:30000}") long maxWaitMs) {
+        this.capacity = capacity;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Registers a waiter for the given request.
+     *
+     * @return a future completed with the response, or {@code null} when the registry is full
+     */
+    public CompletableFuture<AccountCreationResponse> register(String requestId) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            log.warn("Waiter registry full ({}), not waiting on request: {}", capacity, requestId);
+            return null;
+        }
+        CompletableFuture<AccountCreationResponse> waiter = new CompletableFuture<>();
+        waiters.compute(requestId, (id, set) -> {
+            Set<CompletableFuture<AccountCreationResponse>> registered =
+                    set != null ? set : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        // Completed, timed out or cancelled - either way the slot is released
+        waiter.whenComplete((response, ex) -> remove(requestId, waiter));
+        return waiter;
+    }
+
+    public void complete(AccountCreationResponse response) {
+        if (response == null) {
+            return;
+        }
+        complete(response.getRequestId(), response);
+    }
+
+    public void complete(String correlationId, AccountCreationResponse response) {
+        if (correlationId == null || response == null) {
+            return;
+        }
+        Set<CompletableFuture<AccountCreationResponse>> pending = waiters.get(correlationId);
+        if (pending != null) {
+            // Copy first: completing a waiter removes it from the set
+            Set.copyOf(pending).forEach(waiter -> waiter.complete(response));
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    private void remove(String requestId, CompletableFuture<AccountCreationResponse> waiter) {
+        waiters.computeIfPresent(requestId, (id, set) -> {
+            if (set.remove(waiter)) {
+                size.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
@@ -1,13 +1,28 @@
 package com.BlackstoneeIT.customer_management_service.services;
 
-import com.BlackstoneeIT.customer_management_service.dto.AccountCreationResponse;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
 import com.BlackstoneeIT.customer_management_service.dto.AccountStatusDto;
+import com.BlackstoneeIT.customer_management_service.dto.BatchStatusResponse;
+import com.BlackstoneeIT.customer_management_service.entity.AccountRequest;
+import com.BlackstoneeIT.customer_management_service.enums.AccountRequestStatus;
+import com.BlackstoneeIT.customer_management_service.exception.RequestNotFoundException;
+import com.BlackstoneeIT.customer_management_service.util.RequestIds;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -15,45 +30,157 @@ import java.util.TimeZone;
 public class AccountStatusService {
 
     private final KafkaTopicReaderService kafkaTopicReaderService;
+    private final AccountResponseStore accountResponseStore;
+    private final AccountRequestService accountRequestService;
+    private final AccountResponseWaiters accountResponseWaiters;
+    private final AccountResponseLookupService accountResponseLookupService;
 
-    public AccountStatusDto getRequestStatus(String requestId) {
-        // Read directly from Kafka topic
-        AccountCreationResponse kafkaResponse = kafkaTopicReaderService.findResponseByRequestId(requestId);
+    /**
+     * Completes at once from the local store or the request row. Only requests older than
+     * account_requests fall back to Kafka, and that lookup completes on its own pool, never
+     * blocking the calling thread.
+     *
+     * @return fails with {@link RequestNotFoundException} when the request is unknown
+     */
+    public CompletableFuture<AccountStatusDto> getRequestStatus(String requestId) {
+        // Served from the local response store fed by AccountResponseListener
+        AccountCreationResponse kafkaResponse = accountResponseStore.get(requestId);
+        if (kafkaResponse != null) {
+            return CompletableFuture.completedFuture(convertToStatusDto(kafkaResponse));
+        }
+
+        // Primary-key lookup of the durable request row
+        Optional<AccountRequest> request = accountRequestService.findByRequestId(requestId);
+        if (request.isPresent()) {
+            return CompletableFuture.completedFuture(convertToStatusDto(request.get()));
+        }
+
+        // Requests issued before account_requests existed - read from the Kafka topic, seeking
+        // from the time encoded in the id (or the beginning); concurrent callers share one lookup
+        return accountResponseLookupService.findResponse(requestId, RequestIds.extractTimestamp(requestId))
+                .thenApply(response -> {
+                    if (response == null) {
+                        throw new RequestNotFoundException("Request not found: " + requestId);
+                    }
+                    return convertToStatusDto(response);
+                });
+    }
+
+    /**
+     * Completes with the final status as soon as the response is consumed, or with the
+     * current (PENDING) status once {@code waitMs} elapses. Never blocks the calling thread.
+     */
+    public CompletableFuture<AccountStatusDto> awaitRequestStatus(String requestId, long waitMs) {
+        return getRequestStatus(requestId).thenCompose(current -> awaitChange(requestId, current, waitMs));
+    }
+
+    private CompletableFuture<AccountStatusDto> awaitChange(String requestId, AccountStatusDto current, long waitMs) {
+        if (!AccountRequestStatus.PENDING.name().equals(current.getStatus()) || waitMs <= 0) {
+            return CompletableFuture.completedFuture(current);
+        }
+
+        CompletableFuture<AccountCreationResponse> waiter = accountResponseWaiters.register(requestId);
+        if (waiter == null) {
+            // Registry is full - degrade to a plain poll
+            return CompletableFuture.completedFuture(current);
+        }
+
+        // The response may have landed between the status read and the registration
+        AccountCreationResponse arrived = accountResponseStore.get(requestId);
+        if (arrived != null) {
+            waiter.complete(arrived);
+        }
+
+        return waiter
+                .orTimeout(Math.min(waitMs, accountResponseWaiters.getMaxWaitMs()), TimeUnit.MILLISECONDS)
+                .handle((response, ex) -> response != null ? convertToStatusDto(response) : current);
+    }
+
+    /**
+     * Resolves many requests at once: local store first, then one primary-key query for the
+     * rest, and a single pass over the response topic only for ids unknown to both.
+     */
+    public BatchStatusResponse getRequestStatuses(List<String> requestIds) {
+        Set<String> unresolved = new LinkedHashSet<>(requestIds);
+        Map<String, AccountStatusDto> found = new HashMap<>();
+        Set<String> pending = new HashSet<>();
 
-        if (kafkaResponse == null) {
-            // If not found in recent messages, try searching from beginning
-            kafkaResponse = kafkaTopicReaderService.findResponseByRequestIdWithSeek(requestId);
+        for (String requestId : requestIds) {
+            AccountCreationResponse response = accountResponseStore.get(requestId);
+            if (response != null) {
+                found.put(requestId, convertToStatusDto(response));
+                unresolved.remove(requestId);
+            }
         }
 
-        if (kafkaResponse == null) {
-            throw new RuntimeException("Request not found or still processing: " + requestId);
+        if (!unresolved.isEmpty()) {
+            for (AccountRequest request : accountRequestService.findAllByRequestIds(unresolved)) {
+                if (request.getStatus() == AccountRequestStatus.PENDING) {
+                    pending.add(request.getRequestId());
+                } else {
+                    found.put(request.getRequestId(), convertToStatusDto(request));
+                }
+                unresolved.remove(request.getRequestId());
+            }
         }
 
-        return convertToStatusDto(kafkaResponse);
+        if (!unresolved.isEmpty()) {
+            // Requests issued before account_requests existed; start from the oldest decodable id
+            kafkaTopicReaderService.findResponsesByRequestIds(unresolved, earliestSubmission(unresolved))
+                    .forEach((requestId, response) -> found.put(requestId, convertToStatusDto(response)));
+        }
+
+        // Preserve the caller's ordering, without duplicates
+        Set<String> ordered = new LinkedHashSet<>(requestIds);
+        return BatchStatusResponse.builder()
+                .found(ordered.stream().filter(found::containsKey).map(found::get).toList())
+                .pending(ordered.stream().filter(pending::contains).toList())
+                .unknown(ordered.stream().filter(id -> !found.containsKey(id) && !pending.contains(id)).toList())
+                .build();
     }
 
     public AccountCreationResponse getRawKafkaResponse(String requestId) {
-        AccountCreationResponse response = kafkaTopicReaderService.findResponseByRequestId(requestId);
+        AccountCreationResponse response = accountResponseStore.get(requestId);
         if (response == null) {
-            response = kafkaTopicReaderService.findResponseByRequestIdWithSeek(requestId);
+            // Time-ordered ids carry their submission time; older random ids fall back to the request row
+            Long submittedAt = RequestIds.extractTimestamp(requestId);
+            if (submittedAt == null) {
+                submittedAt = accountRequestService.findByRequestId(requestId)
+                        .map(request -> toEpochMillis(request.getCreatedDate()))
+                        .orElse(null);
+            }
+            response = lookUp(requestId, submittedAt);
         }
 
         if (response == null) {
-            throw new RuntimeException("Kafka response not found for request: " + requestId);
+            throw new RequestNotFoundException("Kafka response not found for request: " + requestId);
         }
 
         return response;
     }
 
     public boolean requestExists(String requestId) {
+        if (accountResponseStore.get(requestId) != null
+                || accountRequestService.findByRequestId(requestId).isPresent()) {
+            return true;
+        }
         try {
-            AccountCreationResponse response = kafkaTopicReaderService.findResponseByRequestId(requestId);
+            AccountCreationResponse response = kafkaTopicReaderService.findResponseByRequestId(
+                    requestId, RequestIds.extractTimestamp(requestId));
             return response != null;
         } catch (Exception e) {
             return false;
         }
     }
 
+    private AccountCreationResponse lookUp(String requestId, Long submittedAt) {
+        try {
+            return accountResponseLookupService.findResponse(requestId, submittedAt).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
     private AccountStatusDto convertToStatusDto(AccountCreationResponse response) {
         return new AccountStatusDto(
                 response.getRequestId(),
@@ -65,6 +192,18 @@ public class AccountStatusService {
                 convertTimestampToLocalDateTime(response.getTimestamp())
         );
     }
+    private AccountStatusDto convertToStatusDto(AccountRequest request) {
+        return new AccountStatusDto(
+                request.getRequestId(),
+                request.getAccountId(),
+                request.getCustomerId(),
+                request.getStatus().name(),
+                request.getMessage(),
+                request.getErrorCode(),
+                request.getUpdatedDate()
+        );
+    }
+
     private LocalDateTime convertTimestampToLocalDateTime(Long timestamp) {
         if (timestamp == null) return null;
         return LocalDateTime.ofInstant(
@@ -72,4 +211,22 @@ public class AccountStatusService {
                 TimeZone.getDefault().toZoneId()
         );
     }
-}
\ No newline at end of file
+
+    private Long earliestSubmission(Set<String> requestIds) {
+        long earliest = Long.MAX_VALUE;
+        for (String requestId : requestIds) {
+            Long submittedAt = RequestIds.extractTimestamp(requestId);
+            if (submittedAt == null) {
+                // A random id could be anywhere in the log
+                return null;
+            }
+            earliest = Math.min(earliest, submittedAt);
+        }
+        return earliest;
+    }
+
+    private Long toEpochMillis(LocalDateTime dateTime) {
+        if (dateTime == null) return null;
+        return dateTime.atZone(TimeZone.getDefault().toZoneId()).toInstant().toEpochMilli();
+    }
+}
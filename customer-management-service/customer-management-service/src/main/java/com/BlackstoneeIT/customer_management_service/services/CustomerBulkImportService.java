@@ -0,0 +1,192 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.dto.BulkCustomerResult;
+import com.BlackstoneeIT.customer_management_service.dto.CreateCustomer;
+import com.BlackstoneeIT.customer_management_service.entity.Customer;
+import com.BlackstoneeIT.customer_management_service.enums.BulkCustomerStatus;
+import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Onboards many customers per request. Records are handled in chunks, each inserted in its
+ * own transaction through Hibernate JDBC batching, and results are handed back chunk by chunk
+ * so the caller can stream them. A record that fails validation or clashes on legal_id is
+ * reported on its own and does not abort the rest of its chunk.
+ */
+@Service
+@Slf4j
+public class CustomerBulkImportService {
+
+    private final CustomerRepository customerRepository;
+    private final CustomerIdGeneratorService idGeneratorService;
+    private final CustomerTypeIndex customerTypeIndex;
+    private final LegalIdFilter legalIdFilter;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public CustomerBulkImportService(
+            CustomerRepository customerRepository,
+            CustomerIdGeneratorService idGeneratorService,
+            CustomerTypeIndex customerTypeIndex,
+            LegalIdFilter legalIdFilter,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${customer.bulk.chunk-size:500}") int chunkSize) {
+        this.customerRepository = customerRepository;
+        this.idGeneratorService = idGeneratorService;
+        this.customerTypeIndex = customerTypeIndex;
+        this.legalIdFilter = legalIdFilter;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the customers in order, passing the results of each chunk to {@code chunkResults}
+     * once that chunk has been committed.
+     */
+    public void importCustomers(List<CreateCustomer> customers, Consumer<List<BulkCustomerResult>> chunkResults) {
+        // Legal IDs seen earlier in this request; later repeats are reported as duplicates
+        Set<String> seenLegalIds = new HashSet<>();
+        int created = 0;
+        for (int start = 0; start < customers.size(); start += chunkSize) {
+            List<BulkCustomerResult> results = importChunk(
+                    customers.subList(start, Math.min(start + chunkSize, customers.size())), start, seenLegalIds);
+            created += (int) results.stream().filter(r -> r.status() == BulkCustomerStatus.CREATED).count();
+            chunkResults.accept(results);
+        }
+        log.info("Bulk import finished: {} of {} customers created", created, customers.size());
+    }
+
+    private List<BulkCustomerResult> importChunk(List<CreateCustomer> chunk, int offset, Set<String> seenLegalIds) {
+        BulkCustomerResult[] results = new BulkCustomerResult[chunk.size()];
+        List<Integer> accepted = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            CreateCustomer record = chunk.get(i);
+            Set<ConstraintViolation<CreateCustomer>> violations = validator.validate(record);
+            if (!violations.isEmpty()) {
+                results[i] = rejected(offset + i, record, BulkCustomerStatus.INVALID, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            } else if (!seenLegalIds.add(record.legalID())) {
+                results[i] = rejected(offset + i, record, BulkCustomerStatus.DUPLICATE,
+                        "Legal ID appears earlier in this request");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // One query for the whole chunk, limited to the legal IDs the filter cannot rule out
+        List<String> maybeExisting = accepted.stream()
+                .map(i -> chunk.get(i).legalID())
+                .filter(legalIdFilter::mightContain)
+                .toList();
+        Set<String> existing = maybeExisting.isEmpty()
+                ? Set.of()
+                : new HashSet<>(customerRepository.findExistingLegalIds(maybeExisting));
+        List<Integer> toInsert = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            if (existing.contains(chunk.get(i).legalID())) {
+                results[i] = rejected(offset + i, chunk.get(i), BulkCustomerStatus.DUPLICATE,
+                        "Customer with this legal ID already exists");
+            } else {
+                toInsert.add(i);
+            }
+        }
+
+        long[] ids = new long[toInsert.size()];
+        for (int n = 0; n < ids.length; n++) {
+            ids[n] = idGeneratorService.generateUniqueCustomerId();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Customer> entities = new ArrayList<>(toInsert.size());
+                for (int n = 0; n < ids.length; n++) {
+                    entities.add(toEntity(ids[n], chunk.get(toInsert.get(n))));
+                }
+                customerRepository.saveAll(entities);
+                customerRepository.flush();
+            });
+            for (int n = 0; n < ids.length; n++) {
+                CreateCustomer record = chunk.get(toInsert.get(n));
+                customerTypeIndex.put(ids[n], record.customerType());
+                legalIdFilter.put(record.legalID());
+                results[toInsert.get(n)] = createdResult(offset + toInsert.get(n), record, ids[n]);
+            }
+        } catch (RuntimeException e) {
+            // Typically a legal ID inserted concurrently by another request; find the offending rows
+            log.warn("Batch insert of chunk at {} failed, retrying row by row: {}", offset, e.getMessage());
+            for (int n = 0; n < ids.length; n++) {
+                int i = toInsert.get(n);
+                results[i] = insertOne(offset + i, chunk.get(i), ids[n]);
+            }
+        }
+        return List.of(results);
+    }
+
+    private BulkCustomerResult insertOne(int index, CreateCustomer record, long customerId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                customerRepository.save(toEntity(customerId, record));
+                customerRepository.flush();
+            });
+            customerTypeIndex.put(customerId, record.customerType());
+            legalIdFilter.put(record.legalID());
+            return createdResult(index, record, customerId);
+        } catch (DataIntegrityViolationException e) {
+            return rejected(index, record, BulkCustomerStatus.DUPLICATE, "Customer with this legal ID already exists");
+        } catch (RuntimeException e) {
+            log.error("Failed to import customer at index {}: {}", index, e.getMessage());
+            return rejected(index, record, BulkCustomerStatus.FAILED, e.getMessage());
+        }
+    }
+
+    private Customer toEntity(long customerId, CreateCustomer record) {
+        return Customer.builder()
+                .id(customerId)
+                .legalID(record.legalID())
+                .firstName(record.firstName())
+                .lastName(record.lastName())
+                .email(record.email())
+                .address(record.address())
+                .phone(record.phoneNumber())
+                .Type(record.customerType())
+                .build();
+    }
+
+    private BulkCustomerResult createdResult(int index, CreateCustomer record, long customerId) {
+        return BulkCustomerResult.builder()
+                .index(index)
+                .legalID(record.legalID())
+                .status(BulkCustomerStatus.CREATED)
+                .customerId(customerId)
+                .build();
+    }
+
+    private BulkCustomerResult rejected(int index, CreateCustomer record, BulkCustomerStatus status, String message) {
+        return BulkCustomerResult.builder()
+                .index(index)
+                .legalID(record.legalID())
+                .status(status)
+                .message(message)
+                .build();
+    }
+}
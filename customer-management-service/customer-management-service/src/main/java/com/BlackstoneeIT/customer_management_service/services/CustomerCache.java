@@ -0,0 +1,126 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.dto.CustomerInvalidation;
+import com.BlackstoneeIT.customer_management_service.dto.CustomerResponse;
+import com.BlackstoneeIT.customer_management_service.entity.Customer;
+import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.TimeZone;
+
+/**
+ * Read-through cache of customers keyed by id. Entries carry the row's updated_date as their
+ * version; a save broadcasts the new version on a compacted topic and every node drops any
+ * older copy it holds. The TTL bounds staleness should a broadcast be lost.
+ */
+@Service
+@Slf4j
+public class CustomerCache {
+
+    public static final String INVALIDATION_TOPIC = "customer-invalidations";
+
+    private final LoadingCache<Long, CachedCustomer> customers;
+    private final KafkaTemplate<String, CustomerInvalidation> kafkaTemplate;
+
+    public CustomerCache(
+            CustomerRepository customerRepository,
+            KafkaTemplate<String, CustomerInvalidation> kafkaTemplate,
+            @Value("${customer.cache.max-size:50000}") long maxSize,
+            @Value("${customer.cache.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        // Unknown ids load as null and are not cached
+        this.customers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(id -> customerRepository.findById(id).map(CustomerCache::toCached).orElse(null));
+        // Exposes cache.gets{result=hit|miss}, cache.load.duration and cache.evictions under /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, customers, "customers");
+    }
+
+    /**
+     * @return the customer, or {@code null} when no customer has that id
+     */
+    public CachedCustomer get(Long customerId) {
+        return customers.get(customerId);
+    }
+
+    /**
+     * Invalidates the customer on every node once the current transaction commits.
+     */
+    public void evictOnCommit(Customer customer) {
+        CustomerInvalidation invalidation = new CustomerInvalidation(customer.getId(), toVersion(customer.getUpdatedDate()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                customers.invalidate(invalidation.customerId());
+                kafkaTemplate.send(INVALIDATION_TOPIC, String.valueOf(invalidation.customerId()), invalidation)
+                        .exceptionally(ex -> {
+                            log.warn("Failed to broadcast invalidation of customer {}: {}",
+                                    invalidation.customerId(), ex.getMessage());
+                            return null;
+                        });
+            }
+        });
+    }
+
+    // Unique group per node: every node must see every invalidation, and only new ones matter
+    @KafkaListener(
+            topics = INVALIDATION_TOPIC,
+            groupId = "${spring.application.name}-cache-${random.uuid}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.BlackstoneeIT.customer_management_service.dto.CustomerInvalidation"
+            }
+    )
+    public void onInvalidation(@Payload CustomerInvalidation invalidation) {
+        if (invalidation == null || invalidation.customerId() == null) {
+            return;
+        }
+        // Drop the entry unless it is already at (or past) the broadcast version
+        customers.asMap().computeIfPresent(invalidation.customerId(), (id, cached) ->
+                invalidation.version() == null || cached.version() == null
+                        || cached.version() < invalidation.version() ? null : cached);
+    }
+
+    private static CachedCustomer toCached(Customer customer) {
+        return new CachedCustomer(
+                new CustomerResponse(
+                        customer.getId(),
+                        customer.getLegalID(),
+                        customer.getFirstName(),
+                        customer.getLastName(),
+                        customer.getEmail(),
+                        customer.getPhone(),
+                        customer.getAddress(),
+                        customer.getType()
+                ),
+                toVersion(customer.getUpdatedDate())
+        );
+    }
+
+    private static Long toVersion(LocalDateTime updatedDate) {
+        if (updatedDate == null) return null;
+        return updatedDate.atZone(TimeZone.getDefault().toZoneId()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Immutable snapshot of a customer row, safe to share between requests.
+     */
+    public record CachedCustomer(CustomerResponse customer, Long version) {
+    }
+}
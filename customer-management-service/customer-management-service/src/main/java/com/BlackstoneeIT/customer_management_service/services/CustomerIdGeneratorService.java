@@ -1,58 +1,145 @@
 package com.BlackstoneeIT.customer_management_service.services;
 
+import com.BlackstoneeIT.customer_management_service.enums.CustomerIdStrategy;
 import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
-import lombok.RequiredArgsConstructor;
+import com.BlackstoneeIT.customer_management_service.util.FeistelPermutation;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
 
+/**
+ * Generates customer ids using the strategy selected by {@code customer.id.strategy}:
+ * <ul>
+ *     <li>{@code block} - ids handed out from blocks reserved on the {@code customer_id_block_seq}
+ *     sequence (hi/lo). Each block belongs to this node alone, so ids are unique across the
+ *     cluster and need no existence check; the database is only hit once per block.</li>
+ *     <li>{@code permuted} - the same sequence blocks, passed through a keyed Feistel permutation
+ *     of the id range so consecutive customers get unrelated-looking ids that still never collide.</li>
+ *     <li>{@code random} - the original random probe with {@code existsById}, kept for comparison.</li>
+ * </ul>
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class CustomerIdGeneratorService {
 
+    static final long MIN_CUSTOMER_ID = 1000000L;
+    static final long MAX_CUSTOMER_ID = 9999999L;
+    private static final int MAX_RANDOM_ATTEMPTS = 20;
+
     private final CustomerRepository customerRepository;
-    private final Random random = new Random();
+    private final CustomerIdStrategy strategy;
+    private final int blockSize;
+    private final FeistelPermutation permutation;
+    private volatile IdBlock current = IdBlock.EMPTY;
+
+    public CustomerIdGeneratorService(
+            CustomerRepository customerRepository,
+            @Value("${customer.id.strategy:block}") CustomerIdStrategy strategy,
+            @Value("${customer.id.block-size:100}") int blockSize,
+            @Value("${customer.id.permutation-key:0}") long permutationKey) {
+        this.customerRepository = customerRepository;
+        this.strategy = strategy;
+        this.blockSize = blockSize;
+        this.permutation = new FeistelPermutation(MAX_CUSTOMER_ID - MIN_CUSTOMER_ID + 1, permutationKey);
+        log.info("Customer ID strategy: {}", strategy);
+    }
 
     public Long generateUniqueCustomerId() {
-        Long customerId;
-        int attempts = 0;
-        final int maxAttempts = 20;
+        if (strategy == CustomerIdStrategy.RANDOM) {
+            return generateRandomCustomerId();
+        }
+        while (true) {
+            IdBlock block = current;
+            long customerId = block.next();
+            if (customerId > 0) {
+                log.debug("Generated unique customer ID: {}", customerId);
+                return customerId;
+            }
+            refill(block);
+        }
+    }
 
-        do {
+    private Long generateRandomCustomerId() {
+        for (int attempt = 1; attempt <= MAX_RANDOM_ATTEMPTS; attempt++) {
             // Generate random 7-digit number
-            customerId = generateRandomCustomerId();
+            long customerId = ThreadLocalRandom.current().nextLong(MIN_CUSTOMER_ID, MAX_CUSTOMER_ID + 1);
 
             // Check if ID already exists
             if (!customerRepository.existsById(customerId)) {
                 log.debug("Generated unique customer ID: {}", customerId);
                 return customerId;
             }
+            log.warn("Customer ID {} already exists, attempt {}/{}", customerId, attempt, MAX_RANDOM_ATTEMPTS);
+        }
+        throw new IllegalStateException(
+                "Failed to generate unique customer ID after " + MAX_RANDOM_ATTEMPTS + " attempts");
+    }
 
-            log.warn("Customer ID {} already exists, attempt {}/{}",
-                    customerId, ++attempts, maxAttempts);
+    private synchronized void refill(IdBlock exhausted) {
+        // Another thread already replaced the block while we waited
+        if (current != exhausted) {
+            return;
+        }
+        current = reserveBlock();
+    }
 
-        } while (attempts < maxAttempts);
+    private IdBlock reserveBlock() {
+        while (true) {
+            long start;
+            try {
+                start = customerRepository.nextCustomerIdBlock();
+            } catch (DataAccessException e) {
+                // NO CYCLE: nextval fails once the sequence passes its MAXVALUE
+                throw new IllegalStateException("Customer ID range exhausted", e);
+            }
+            if (start < MIN_CUSTOMER_ID || start > MAX_CUSTOMER_ID) {
+                throw new IllegalStateException("Customer ID range exhausted");
+            }
+            long end = Math.min(start + blockSize - 1, MAX_CUSTOMER_ID);
 
-        throw new IllegalStateException(
-                "Failed to generate unique customer ID after " + maxAttempts + " attempts");
+            long[] candidates = LongStream.rangeClosed(start, end).map(this::toCustomerId).toArray();
+            // Rows written by the earlier random generator may sit inside the block
+            Set<Long> taken = new HashSet<>(strategy == CustomerIdStrategy.PERMUTED
+                    ? customerRepository.findExistingIds(Arrays.stream(candidates).boxed().toList())
+                    : customerRepository.findIdsBetween(start, end));
+            long[] ids = Arrays.stream(candidates).filter(id -> !taken.contains(id)).toArray();
+            if (ids.length > 0) {
+                log.info("Reserved customer ID block {}-{} ({} free)", start, end, ids.length);
+                return new IdBlock(ids);
+            }
+            log.warn("Customer ID block {}-{} fully taken by existing customers, reserving next", start, end);
+        }
     }
 
-    private Long generateRandomCustomerId() {
-        return 1000000L + (long) (random.nextDouble() * 9000000L);
+    private long toCustomerId(long sequenceValue) {
+        if (strategy != CustomerIdStrategy.PERMUTED) {
+            return sequenceValue;
+        }
+        return MIN_CUSTOMER_ID + permutation.permute(sequenceValue - MIN_CUSTOMER_ID);
     }
 
-//    // Alternative: Database sequence-based generation
-//    public Long generateSequentialCustomerId() {
-//        Long maxId = customerRepository.findMaxId().orElse(1000000L);
-//        Long nextId = maxId + 1;
-//
-//        // Ensure it's within 7-digit range
-//        if (nextId > 9999999L) {
-//            throw new IllegalStateException("Customer ID range exhausted");
-//        }
-//
-//        return nextId;
-//    }
-}
\ No newline at end of file
+    private static final class IdBlock {
+        private static final IdBlock EMPTY = new IdBlock(new long[0]);
+
+        private final long[] ids;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        private IdBlock(long[] ids) {
+            this.ids = ids;
+        }
+
+        // Lock-free; returns -1 once the block is used up
+        private long next() {
+            int index = cursor.getAndIncrement();
+            return index < ids.length ? ids[index] : -1;
+        }
+    }
+}
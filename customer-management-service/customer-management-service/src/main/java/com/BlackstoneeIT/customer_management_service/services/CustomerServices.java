@@ -1,16 +1,25 @@
 package com.BlackstoneeIT.customer_management_service.services;
 
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
 import com.BlackstoneeIT.customer_management_service.dto.CreateCustomer;
+import com.BlackstoneeIT.customer_management_service.dto.CustomerPage;
 import com.BlackstoneeIT.customer_management_service.dto.CustomerResponse;
 import com.BlackstoneeIT.customer_management_service.entity.Customer;
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.exception.DuplicateCustomerException;
 import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
+import com.BlackstoneeIT.customer_management_service.repository.CustomerSpecifications;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -19,24 +28,65 @@ public class CustomerServices {
 private CustomerRepository customerRepository;
 private final CustomerIdGeneratorService idGeneratorService;
 
-    private final KafkaProducerService kafkaProducerService ;
+    private final AccountRequestService accountRequestService;
+    private final CustomerCache customerCache;
+    private final CustomerTypeIndex customerTypeIndex;
+    private final LegalIdFilter legalIdFilter;
+    private final OutboxService outboxService;
     private static final String ACCOUNT_CREATION_TOPIC = "account-creation-requests";
+    private static final int MAX_SEARCH_LIMIT = 500;
 public CustomerResponse getCustomerById(long customerId) {
-    Customer customer = (Customer) customerRepository.getCustomersById(customerId);
-
-    return new CustomerResponse(
-            customer.getId(),
-            customer.getLegalID(),
-            customer.getFirstName(),
-            customer.getLastName(),
-            customer.getEmail(),
-            customer.getPhone(),  // Assuming phone field exists
-            customer.getAddress(),
-            customer.getType()
-    );
+    CustomerCache.CachedCustomer cached = customerCache.get(customerId);
+    if (cached == null) {
+        throw new RuntimeException("Customer not found: " + customerId);
+    }
+    return cached.customer();
 };
+    /**
+     * Version of the customer (its updated_date in epoch millis) for ETags, served from the
+     * customer cache; {@code null} when unknown.
+     */
+    public Long getCustomerVersion(long customerId) {
+        CustomerCache.CachedCustomer cached = customerCache.get(customerId);
+        return cached != null ? cached.version() : null;
+    }
+
+    /**
+     * Keyset (seek) pagination in id order: each page starts right after the previous page's
+     * last id, so a deep page costs the same index range scan as the first one.
+     */
+    @Transactional(readOnly = true)
+    public CustomerPage searchCustomers(String legalIdPrefix, String email, CustomerType type, Long after, int limit) {
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        Specification<Customer> filter = Specification.allOf(
+                CustomerSpecifications.idAfter(after),
+                CustomerSpecifications.legalIdStartsWith(legalIdPrefix),
+                CustomerSpecifications.emailEqualsIgnoreCase(email),
+                CustomerSpecifications.hasType(type));
+
+        // One extra row tells whether another page exists, without a COUNT query
+        List<Customer> rows = customerRepository.findBy(filter, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(limit + 1)
+                .all());
+        boolean hasMore = rows.size() > limit;
+        List<CustomerResponse> customers = rows.stream()
+                .limit(limit)
+                .map(this::toResponse)
+                .toList();
+        Long nextCursor = hasMore ? customers.get(customers.size() - 1).customerId() : null;
+        return new CustomerPage(customers, nextCursor);
+    }
+
     @Transactional
 public CustomerResponse createCustomer(CreateCustomer createCustomer) {
+        // Reject duplicates before an id is allocated; new legal IDs usually skip the lookup entirely
+        if (legalIdFilter.exists(createCustomer.legalID())) {
+            throw new DuplicateCustomerException(
+                    "Customer with legal ID " + createCustomer.legalID() + " already exists");
+        }
         Long customerId = idGeneratorService.generateUniqueCustomerId();
         Customer customer = Customer.builder()
                 .id(customerId)
@@ -49,7 +99,18 @@ public CustomerResponse createCustomer(CreateCustomer createCustomer) {
                 .Type(createCustomer.customerType())
                 .build();
         //Customer customer = modelMapper.map(createCustomer,Customer.class);
-        Customer createdCustomer = customerRepository.save(customer);
+        Customer createdCustomer;
+        try {
+            // Flushed here so a concurrent duplicate surfaces as 409, not as a failed commit
+            createdCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            // The filter only knows this node's inserts; another node may have taken the legal ID
+            throw new DuplicateCustomerException(
+                    "Customer with legal ID " + createCustomer.legalID() + " already exists");
+        }
+        legalIdFilter.putOnCommit(createdCustomer.getLegalID());
+        customerCache.evictOnCommit(createdCustomer);
+        customerTypeIndex.putOnCommit(createdCustomer.getId(), createdCustomer.getType());
 
         return new CustomerResponse(
                 createdCustomer.getId(),
@@ -74,24 +135,47 @@ public CustomerResponse createCustomer(CreateCustomer createCustomer) {
         log.info("Requesting account creation for customer: {}, type: {}", customerId, accountType);
 
         // Verify customer exists and get customer type
-        Customer customer = customerRepository.findById(customerId)
-                .orElseThrow(() -> new RuntimeException("Customer not found: " + customerId));
+        CustomerType customerType = resolveCustomerType(customerId);
 
-        // Publish account creation event to Kafka
+        // Track the request durably so its status survives restarts
+        accountRequestService.createPending(requestId, customerId, accountType);
 
- kafkaProducerService.sendAccountCreationEvent(
+        // Written to the outbox in this transaction; OutboxRelay publishes it after commit,
+        // so the response can never arrive before the PENDING row it completes
+        outboxService.enqueueAccountCreation(new AccountCreationEvent(
                 customerId,
-                customer.getType(),
+                customerType.name(),
                 accountType,
                 initialBalance != null ? initialBalance : BigDecimal.ZERO,
-                requestId
-        ).thenAccept(result -> {
-            log.info("Account creation event published for customer: {}", customerId);
-        }).exceptionally(ex -> {
-            log.error("Failed to publish account creation event for customer: {}", customerId, ex);
-            throw new RuntimeException("Failed to publish account creation event", ex);
-        });
+                requestId,
+                System.currentTimeMillis()
+        ));
+    }
 
+    // The type index answers without a query; only ids it has not seen yet go to the cache/DB
+    private CustomerType resolveCustomerType(Long customerId) {
+        CustomerType customerType = customerTypeIndex.find(customerId);
+        if (customerType != null) {
+            return customerType;
+        }
+        CustomerCache.CachedCustomer cached = customerCache.get(customerId);
+        if (cached == null) {
+            throw new RuntimeException("Customer not found: " + customerId);
+        }
+        customerTypeIndex.put(customerId, cached.customer().customerType());
+        return cached.customer().customerType();
     }
 
+    private CustomerResponse toResponse(Customer customer) {
+        return new CustomerResponse(
+                customer.getId(),
+                customer.getLegalID(),
+                customer.getFirstName(),
+                customer.getLastName(),
+                customer.getEmail(),
+                customer.getPhone(),
+                customer.getAddress(),
+                customer.getType()
+        );
+    }
 }
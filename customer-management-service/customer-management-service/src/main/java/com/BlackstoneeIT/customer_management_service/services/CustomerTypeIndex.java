@@ -0,0 +1,113 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * customerId to {@link CustomerType} lookup without touching the database or boxing.
+ * Customer ids are confined to 1000000-9999999 by the customers CHECK constraint, so the
+ * index is a dense byte array indexed by {@code id - 1000000} holding {@code ordinal + 1}
+ * (0 = unknown): 9 MB for the whole id space, against hundreds of MB for a HashMap of entities.
+ * Hydrated by a streaming scan once the application is ready and kept current on create.
+ */
+@Service
+@Slf4j
+public class CustomerTypeIndex {
+
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final CustomerType[] TYPES = CustomerType.values();
+
+    private final CustomerRepository customerRepository;
+    private final byte[] slots = new byte[(int) (CustomerIdGeneratorService.MAX_CUSTOMER_ID
+            - CustomerIdGeneratorService.MIN_CUSTOMER_ID + 1)];
+    private final AtomicInteger size = new AtomicInteger();
+    private final Timer lookupTimer;
+
+    public CustomerTypeIndex(CustomerRepository customerRepository, MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        Gauge.builder("customer.type-index.size", size, AtomicInteger::get)
+                .description("Customers in the type index")
+                .register(meterRegistry);
+        Gauge.builder("customer.type-index.bytes", slots, array -> array.length)
+                .description("Memory held by the type index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("customer.type-index.lookup")
+                .description("Type index lookups")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the customer's type, or {@code null} when the id is not (yet) indexed and the
+     * caller has to fall back to the database
+     */
+    public CustomerType find(long customerId) {
+        long start = System.nanoTime();
+        try {
+            int slot = slot(customerId);
+            if (slot < 0) {
+                return null;
+            }
+            byte value = (byte) SLOTS.getAcquire(slots, slot);
+            return value == 0 ? null : TYPES[value - 1];
+        } finally {
+            lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void put(long customerId, CustomerType type) {
+        int slot = slot(customerId);
+        if (slot < 0 || type == null) {
+            return;
+        }
+        byte previous = (byte) SLOTS.getAndSetRelease(slots, slot, (byte) (type.ordinal() + 1));
+        if (previous == 0) {
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Indexes the customer once the current transaction commits, so a rolled back insert
+     * never becomes visible.
+     */
+    public void putOnCommit(long customerId, CustomerType type) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(customerId, type);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void hydrate() {
+        long start = System.currentTimeMillis();
+        try (Stream<Object[]> rows = customerRepository.streamIdsAndTypes()) {
+            rows.forEach(row -> put((Long) row[0], (CustomerType) row[1]));
+        }
+        log.info("Customer type index hydrated with {} customers in {} ms",
+                size.get(), System.currentTimeMillis() - start);
+    }
+
+    private int slot(long customerId) {
+        long slot = customerId - CustomerIdGeneratorService.MIN_CUSTOMER_ID;
+        return slot >= 0 && slot < slots.length ? (int) slot : -1;
+    }
+}
@@ -0,0 +1,211 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.entity.IdempotencyRecord;
+import com.BlackstoneeIT.customer_management_service.enums.IdempotencyStatus;
+import com.BlackstoneeIT.customer_management_service.exception.IdempotencyKeyConflictException;
+import com.BlackstoneeIT.customer_management_service.exception.IdempotencyKeyMismatchException;
+import com.BlackstoneeIT.customer_management_service.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POSTs. The first request with a key reserves it in
+ * idempotency_keys (committed before the work starts, so other instances see it), runs, and
+ * stores its response; later requests with the same key replay that response without
+ * running anything. Completed responses are also kept in a bounded in-memory cache so
+ * replays normally skip the database too. If the response cannot be stored, the request fails
+ * and the key stays reserved for the TTL, so a retry gets 409 rather than running it again.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> completed;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${idempotency.lease:PT1M}") Duration lease,
+            @Value("${idempotency.cache.max-size:100000}") long cacheMaxSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.lease = lease;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "idempotency-keys");
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.conflicts = requestCounter(meterRegistry, "conflict");
+    }
+
+    /**
+     * Runs {@code action} once per key and scope, replaying its response for repeats.
+     *
+     * @param scope   endpoint the key belongs to; the same key on another endpoint is unrelated
+     * @param request what the client sent; a repeat with a different request is rejected
+     * @throws IdempotencyKeyConflictException when the first request with this key is still running
+     * @throws IdempotencyKeyMismatchException when the key was used for a different request
+     * @throws IllegalStateException when the action ran but its response could not be stored
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String id = scope + ":" + key;
+        String requestHash = hash(scope, request);
+
+        StoredResponse stored = completed.getIfPresent(id);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Integer reserved = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.reserve(id, requestHash, now, now.plus(lease)));
+        if (reserved == null || reserved == 0) {
+            return replayExisting(id, requestHash, responseType);
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // Nothing was done (or it was rolled back); let the client retry with the same key
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteByIdAndStatus(id, IdempotencyStatus.IN_PROGRESS));
+            throw e;
+        }
+        executed.increment();
+        try {
+            store(id, requestHash, response);
+        } catch (RuntimeException e) {
+            holdKey(id);
+            throw new IllegalStateException("The request was processed but its response could not be recorded; "
+                    + "check its outcome before retrying", e);
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup.interval-ms:60000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private <T> ResponseEntity<T> replayExisting(String id, String requestHash, Class<T> responseType) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id).orElse(null);
+        if (record == null || record.getStatus() != IdempotencyStatus.COMPLETED) {
+            // Still running elsewhere (or released by a failure a moment ago)
+            conflicts.increment();
+            throw new IdempotencyKeyConflictException(
+                    "A request with this Idempotency-Key is already in progress");
+        }
+        StoredResponse stored = new StoredResponse(
+                record.getRequestHash(), record.getResponseStatus(), record.getResponseBody());
+        completed.put(id, stored);
+        return replay(stored, requestHash, responseType);
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException(
+                    "Idempotency-Key was already used for a different request");
+        }
+        replayed.increment();
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to read stored response", e);
+        }
+    }
+
+    private void store(String id, String requestHash, ResponseEntity<?> response) {
+        String body;
+        try {
+            body = response.getBody() != null ? objectMapper.writeValueAsString(response.getBody()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to write response", e);
+        }
+        int status = response.getStatusCode().value();
+        transactionTemplate.executeWithoutResult(tx -> idempotencyRecordRepository.complete(
+                id, IdempotencyStatus.COMPLETED, status, body, LocalDateTime.now().plus(ttl)));
+        completed.put(id, new StoredResponse(requestHash, status, body));
+    }
+
+    // The work is done, so the reservation must outlive the lease: otherwise a retry would run it again
+    private void holdKey(String id) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> idempotencyRecordRepository.extend(
+                    id, IdempotencyStatus.IN_PROGRESS, LocalDateTime.now().plus(ttl)));
+            log.error("Failed to store response for idempotency key {}; holding the key until it expires", id);
+        } catch (RuntimeException e) {
+            log.error("Failed to store response or hold idempotency key {}; a retry after the lease runs it again: {}",
+                    id, e.getMessage());
+        }
+    }
+
+    private String hash(String scope, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .tag("outcome", outcome)
+                .description("Requests carrying an Idempotency-Key")
+                .register(meterRegistry);
+    }
+
+    private record StoredResponse(String requestHash, int status, String body) {
+    }
+}
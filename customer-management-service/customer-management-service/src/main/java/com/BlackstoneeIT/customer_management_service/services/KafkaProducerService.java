@@ -1,14 +1,17 @@
 package com.BlackstoneeIT.customer_management_service.services;
 
-import com.BlackstoneeIT.customer_management_service.dto.AccountCreationEvent;
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
 import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -19,21 +22,33 @@ public class KafkaProducerService {
 
     private final KafkaTemplate<String, AccountCreationEvent> kafkaTemplate;
     private static final String ACCOUNT_CREATION_TOPIC = "account-creation-requests";
+    private static final String ACCOUNT_CREATION_RESPONSE_TOPIC = "account-creation-responses";
 
     public CompletableFuture<SendResult<String, AccountCreationEvent>> sendAccountCreationEvent(
             Long customerId, CustomerType customerType, String accountType, BigDecimal initialBalance,String requestId) {
 
         AccountCreationEvent event = new AccountCreationEvent(
                 customerId,
-                customerType,
+                customerType.name(),
                 accountType,
                 initialBalance,
                 requestId,
                 System.currentTimeMillis()
         );
+        return sendAccountCreationEvent(event);
+    }
+
+    public CompletableFuture<SendResult<String, AccountCreationEvent>> sendAccountCreationEvent(
+            AccountCreationEvent event) {
+
+        // Request-reply headers: the account service echoes the correlation id on the reply topic
+        ProducerRecord<String, AccountCreationEvent> record =
+                new ProducerRecord<>(ACCOUNT_CREATION_TOPIC, event.getRequestId(), event);
+        record.headers().add(KafkaHeaders.REPLY_TOPIC, ACCOUNT_CREATION_RESPONSE_TOPIC.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.CORRELATION_ID, event.getRequestId().getBytes(StandardCharsets.UTF_8));
 
         log.info("Publishing account creation event: {}", event);
-        return kafkaTemplate.send(ACCOUNT_CREATION_TOPIC, event.getRequestId(), event);
+        return kafkaTemplate.send(record);
     }
     @KafkaListener(topics = "account-creation-responses", groupId = "debug-group")
     public void debugRaw(String message) {
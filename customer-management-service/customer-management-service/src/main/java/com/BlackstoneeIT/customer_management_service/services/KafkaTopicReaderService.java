@@ -1,98 +1,321 @@
 package com.BlackstoneeIT.customer_management_service.services;
 
-import com.BlackstoneeIT.customer_management_service.dto.AccountCreationEvent;
-import com.BlackstoneeIT.customer_management_service.dto.AccountCreationResponse;
-import lombok.RequiredArgsConstructor;
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.stereotype.Service;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.stream.StreamSupport;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class KafkaTopicReaderService {
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final ConsumerFactory<String, AccountCreationResponse> consumerFactory;
     private final String responseTopic = "account-creation-responses";
     private final ConsumerFactory<String, AccountCreationResponse> accountResponseConsumerFactory;
+    private final ExecutorService scanExecutor;
+    private final long scanTimeoutMs;
+    private final long clockSkewMs;
+    private final long quickPollTimeoutMs;
+    // Idle assigned consumers for the quick poll, so a lookup does not pay for a new consumer each time
+    private final BlockingQueue<Consumer<String, AccountCreationResponse>> quickPollConsumers;
 
-    private Consumer<String, AccountCreationResponse> createConsumerFromFactory() {
-        return accountResponseConsumerFactory.createConsumer(
-                "account-service-group" + System.currentTimeMillis(),
-                String.valueOf(System.currentTimeMillis())
-        );
+    public KafkaTopicReaderService(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            ConsumerFactory<String, AccountCreationResponse> consumerFactory,
+            ConsumerFactory<String, AccountCreationResponse> accountResponseConsumerFactory,
+            @Value("${kafka.status-scan.threads:8}") int scanThreads,
+            @Value("${kafka.status-scan.queue-capacity:64}") int scanQueueCapacity,
+            @Value("${kafka.status-scan.timeout-ms:2000}") long scanTimeoutMs,
+            @Value("${kafka.status-scan.clock-skew-ms:5000}") long clockSkewMs,
+            @Value("${kafka.status-scan.quick-poll.timeout-ms:500}") long quickPollTimeoutMs,
+            @Value("${kafka.status-scan.quick-poll.consumers:4}") int quickPollConsumers) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.consumerFactory = consumerFactory;
+        this.accountResponseConsumerFactory = accountResponseConsumerFactory;
+        this.scanTimeoutMs = scanTimeoutMs;
+        this.clockSkewMs = clockSkewMs;
+        this.quickPollTimeoutMs = quickPollTimeoutMs;
+        this.quickPollConsumers = new ArrayBlockingQueue<>(quickPollConsumers);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Bounded in both threads and queue so a burst of lookups cannot pile up behind the broker
+        this.scanExecutor = new ThreadPoolExecutor(scanThreads, scanThreads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(scanQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "status-scan-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
-    public AccountCreationResponse findResponseByRequestId(String requestId) {
-        // Use KafkaTemplate's consumer factory to create a temporary consumer
-        try (Consumer<String, AccountCreationResponse> consumer = createConsumerFromFactory()) {
-            return findResponseWithConsumer(consumer, requestId);
+
+    /**
+     * One poll of the response topic from where the request was submitted (or the beginning),
+     * on a pooled consumer. Cheap, but it only sees the first batch of records, so {@code null}
+     * does not mean the response is not in the topic.
+     *
+     * @param submittedAt epoch millis the request was submitted at, when known
+     */
+    public AccountCreationResponse findResponseByRequestId(String requestId, Long submittedAt) {
+        Consumer<String, AccountCreationResponse> consumer = quickPollConsumers.poll();
+        if (consumer == null) {
+            consumer = createScanConsumer();
+        }
+        try {
+            AccountCreationResponse response = quickPoll(consumer, requestId, submittedAt);
+            if (scanExecutor.isShutdown() || !quickPollConsumers.offer(consumer)) {
+                consumer.close();
+            }
+            return response;
         } catch (Exception e) {
+            // Its assignment and positions are unknown now; do not hand it to the next lookup
+            consumer.close();
             log.error("Error reading from Kafka topic: {}", e.getMessage());
             return null;
         }
     }
 
+    private AccountCreationResponse quickPoll(
+            Consumer<String, AccountCreationResponse> consumer, String requestId, Long submittedAt) {
 
-    private AccountCreationResponse findResponseWithConsumer(
-            Consumer<String, AccountCreationResponse> consumer, String requestId) {
-
-        consumer.subscribe(Collections.singletonList(responseTopic));
+        Map<TopicPartition, long[]> ranges = resolveScanRanges(consumer, submittedAt);
+        if (ranges.isEmpty()) {
+            consumer.assign(Collections.emptyList());
+            return null;
+        }
+        consumer.assign(ranges.keySet());
+        ranges.forEach((partition, range) -> consumer.seek(partition, range[0]));
 
-        // Poll for messages with a short timeout
-        ConsumerRecords<String, AccountCreationResponse> records = consumer.poll(Duration.ofSeconds(3));
-        return StreamSupport.stream(records.records(responseTopic).spliterator(), false)
-                .filter(record -> requestId.equals(record.key()))
-                .findFirst()
-                .map(record -> record.value())
-                .orElse(null);
+        ConsumerRecords<String, AccountCreationResponse> records = consumer.poll(Duration.ofMillis(quickPollTimeoutMs));
+        for (var record : records) {
+            if (requestId.equals(record.key())) {
+                return record.value();
+            }
+        }
+        return null;
     }
 
     public AccountCreationResponse findResponseByRequestIdWithSeek(String requestId) {
-        try (Consumer<String, AccountCreationResponse> consumer = createConsumerFromFactory()) {
+        return findResponseByRequestIdWithSeek(requestId, null);
+    }
+
+    /**
+     * Scans every partition of the response topic concurrently for the given request.
+     * The first hit cancels the remaining scans, and the whole scan is bounded by
+     * {@code kafka.status-scan.timeout-ms}.
+     *
+     * @param submittedAt epoch millis the request was submitted at, when known; partitions are
+     *                    read from the first offset at or after that time instead of the beginning
+     */
+    public AccountCreationResponse findResponseByRequestIdWithSeek(String requestId, Long submittedAt) {
+        return findResponsesByRequestIds(Set.of(requestId), submittedAt).get(requestId);
+    }
+
+    /**
+     * Resolves many requests in a single concurrent pass over the response topic. Scans stop
+     * as soon as every id has been found; ids still missing at the deadline are left out.
+     *
+     * @param submittedAt epoch millis of the earliest submission among the ids, or {@code null}
+     *                    to read every partition from the beginning
+     */
+    public Map<String, AccountCreationResponse> findResponsesByRequestIds(Set<String> requestIds, Long submittedAt) {
+        return scanResponses(requestIds, submittedAt).responses();
+    }
+
+    /**
+     * Same pass as {@link #findResponsesByRequestIds}, but also reports whether every partition
+     * was read to its end. Only a complete scan proves that a missing id is not in the topic;
+     * a saturated pool, the deadline or a broker error leave the result {@code complete = false}.
+     */
+    public ScanResult scanResponses(Set<String> requestIds, Long submittedAt) {
+        if (requestIds.isEmpty()) {
+            return new ScanResult(Map.of(), true);
+        }
+        long deadline = System.currentTimeMillis() + scanTimeoutMs;
+        Map<TopicPartition, long[]> ranges;
+        try (Consumer<String, AccountCreationResponse> consumer = createScanConsumer()) {
+            ranges = resolveScanRanges(consumer, submittedAt);
+        } catch (Exception e) {
+            log.error("Error resolving offsets in Kafka topic: {}", e.getMessage());
+            return new ScanResult(Map.of(), false);
+        }
+        if (ranges.isEmpty()) {
+            return new ScanResult(Map.of(), true);
+        }
+
+        Map<String, AccountCreationResponse> found = new ConcurrentHashMap<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean incomplete = new AtomicBoolean();
+        AtomicInteger remaining = new AtomicInteger(ranges.size());
+        List<Future<?>> scans = new ArrayList<>(ranges.size());
+        try {
+            for (Map.Entry<TopicPartition, long[]> range : ranges.entrySet()) {
+                scans.add(scanExecutor.submit(() -> {
+                    try {
+                        scanPartition(range.getKey(), range.getValue()[0], range.getValue()[1],
+                                requestIds, found, deadline, cancelled, incomplete, done);
+                    } finally {
+                        // Every partition scan has finished
+                        if (remaining.decrementAndGet() == 0) {
+                            done.complete(null);
+                        }
+                    }
+                }));
+            }
+        } catch (RejectedExecutionException e) {
+            log.warn("Status scan pool saturated, skipping Kafka lookup for {} request(s)", requestIds.size());
+            cancelled.set(true);
+            scans.forEach(scan -> scan.cancel(true));
+            return new ScanResult(Map.of(), false);
+        }
 
-            // Get all partitions for the topic
-            var partitions = consumer.partitionsFor(responseTopic);
-            if (partitions == null) return null;
+        try {
+            done.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Status scan for {} request(s) exceeded {} ms", requestIds.size(), scanTimeoutMs);
+            incomplete.set(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            incomplete.set(true);
+        } catch (ExecutionException e) {
+            log.error("Error seeking in Kafka topic: {}", e.getMessage());
+            incomplete.set(true);
+        } finally {
+            cancelled.set(true);
+            scans.forEach(scan -> scan.cancel(true));
+        }
+        Map<String, AccountCreationResponse> responses = new HashMap<>(found);
+        return new ScanResult(responses, responses.size() == requestIds.size() || !incomplete.get());
+    }
+
+    /**
+     * Responses found by a scan of the response topic.
+     *
+     * @param complete whether every partition was read to its end, so that ids missing from
+     *                 {@code responses} are known not to be in the topic
+     */
+    public record ScanResult(Map<String, AccountCreationResponse> responses, boolean complete) {
+    }
+
+    private Map<TopicPartition, long[]> resolveScanRanges(
+            Consumer<String, AccountCreationResponse> consumer, Long submittedAt) {
 
-            for (var partitionInfo : partitions) {
-                TopicPartition partition = new TopicPartition(responseTopic, partitionInfo.partition());
-                consumer.assign(Collections.singletonList(partition));
-                consumer.seekToBeginning(Collections.singletonList(partition));
+        var partitions = consumer.partitionsFor(responseTopic);
+        if (partitions == null || partitions.isEmpty()) return Map.of();
+
+        List<TopicPartition> topicPartitions = partitions.stream()
+                .map(info -> new TopicPartition(responseTopic, info.partition()))
+                .toList();
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(topicPartitions);
+
+        Map<TopicPartition, Long> startOffsets = new HashMap<>();
+        if (submittedAt != null) {
+            // A reply is never older than its request; allow for clock skew between hosts
+            long from = Math.max(0, submittedAt - clockSkewMs);
+            Map<TopicPartition, Long> timestamps = new HashMap<>();
+            topicPartitions.forEach(partition -> timestamps.put(partition, from));
+            consumer.offsetsForTimes(timestamps).forEach((partition, offset) ->
+                    // null: nothing written since that time, the partition cannot hold the reply
+                    startOffsets.put(partition, offset != null ? offset.offset() : endOffsets.get(partition)));
+        } else {
+            startOffsets.putAll(consumer.beginningOffsets(topicPartitions));
+        }
+
+        Map<TopicPartition, long[]> ranges = new HashMap<>();
+        for (TopicPartition partition : topicPartitions) {
+            long start = startOffsets.getOrDefault(partition, 0L);
+            long end = endOffsets.getOrDefault(partition, 0L);
+            if (start < end) {
+                ranges.put(partition, new long[]{start, end});
+            }
+        }
+        return ranges;
+    }
 
-                long endOffset = consumer.endOffsets(Collections.singletonList(partition)).get(partition);
-                long currentPosition = consumer.position(partition);
+    private void scanPartition(TopicPartition partition, long startOffset, long endOffset, Set<String> requestIds,
+                               Map<String, AccountCreationResponse> found, long deadline,
+                               AtomicBoolean cancelled, AtomicBoolean incomplete, CompletableFuture<Void> done) {
+        try (Consumer<String, AccountCreationResponse> consumer = createScanConsumer()) {
+            consumer.assign(Collections.singletonList(partition));
+            consumer.seek(partition, startOffset);
 
-                // Read until we find the message or reach the end
-                while (currentPosition < endOffset) {
-                    ConsumerRecords<String, AccountCreationResponse> records = consumer.poll(Duration.ofMillis(100));
-                    if (records.isEmpty()) break;
+            long currentPosition = startOffset;
+            // Read until every id is found, we reach the end, or the lookup is over
+            while (currentPosition < endOffset && !cancelled.get() && System.currentTimeMillis() < deadline) {
+                ConsumerRecords<String, AccountCreationResponse> records = consumer.poll(Duration.ofMillis(100));
 
-                    for (var record : records.records(partition)) {
-                        if (requestId.equals(record.key())) {
-                            return record.value();
+                for (var record : records.records(partition)) {
+                    if (record.key() != null && requestIds.contains(record.key())) {
+                        found.put(record.key(), record.value());
+                        if (found.size() == requestIds.size()) {
+                            cancelled.set(true);
+                            done.complete(null);
+                            return;
                         }
                     }
-                    currentPosition = consumer.position(partition);
                 }
+                currentPosition = consumer.position(partition);
             }
-            return null;
-
+            if (currentPosition < endOffset) {
+                // Stopped early by the deadline or a cancellation: this partition was not fully read
+                incomplete.set(true);
+            }
+        } catch (InterruptException e) {
+            // Cancelled after another partition found the response, or at the deadline
+            incomplete.set(true);
         } catch (Exception e) {
-            log.error("Error seeking in Kafka topic: {}", e.getMessage());
-            return null;
+            log.error("Error scanning partition {} in Kafka topic: {}", partition, e.getMessage());
+            incomplete.set(true);
+        }
+    }
+
+    private Consumer<String, AccountCreationResponse> createScanConsumer() {
+        Properties overrides = new Properties();
+        // Assigned, read-only consumers: nothing to commit and no group membership needed
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "2000");
+        return accountResponseConsumerFactory.createConsumer(
+                "customer-status-scan", "status-scan", null, overrides);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scanExecutor.shutdownNow();
+        Consumer<String, AccountCreationResponse> consumer;
+        while ((consumer = quickPollConsumers.poll()) != null) {
+            consumer.close();
         }
     }
 
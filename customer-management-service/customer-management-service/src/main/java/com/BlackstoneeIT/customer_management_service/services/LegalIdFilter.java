@@ -0,0 +1,122 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.repository.CustomerRepository;
+import com.BlackstoneeIT.customer_management_service.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.stream.Stream;
+
+/**
+ * Pre-check for duplicate legal IDs. A Bloom filter of every known legal ID answers "absent"
+ * for a new one without touching the database; only a "maybe present" answer costs an indexed
+ * lookup. Until the filter has been loaded at startup every ID is reported as maybe present.
+ */
+@Service
+@Slf4j
+public class LegalIdFilter {
+
+    private final CustomerRepository customerRepository;
+    private final BloomFilter filter;
+    private final Counter absent;
+    private final Counter maybePresent;
+    private final Counter falsePositives;
+    private volatile boolean loaded;
+
+    public LegalIdFilter(
+            CustomerRepository customerRepository,
+            @Value("${customer.legal-id-filter.expected-insertions:10000000}") long expectedInsertions,
+            @Value("${customer.legal-id-filter.false-positive-probability:0.01}") double falsePositiveProbability,
+            MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.absent = checkCounter(meterRegistry, "absent");
+        this.maybePresent = checkCounter(meterRegistry, "maybe-present");
+        this.falsePositives = Counter.builder("customer.legal-id-filter.false-positives")
+                .description("Maybe-present answers the database lookup found absent")
+                .register(meterRegistry);
+        Gauge.builder("customer.legal-id-filter.bytes", filter, BloomFilter::sizeInBytes)
+                .description("Memory held by the legal ID filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("customer.legal-id-filter.insertions", filter, BloomFilter::approximateInsertions)
+                .description("Legal IDs added to the filter")
+                .register(meterRegistry);
+        Gauge.builder("customer.legal-id-filter.expected-fpp", filter, BloomFilter::expectedFalsePositiveProbability)
+                .description("False-positive probability at the current fill")
+                .register(meterRegistry);
+        log.info("Legal ID filter: {} bytes, {} hash functions", filter.sizeInBytes(), filter.hashCount());
+    }
+
+    /**
+     * @return {@code true} if a customer with this legal ID exists
+     */
+    public boolean exists(String legalId) {
+        if (!mightContain(legalId)) {
+            return false;
+        }
+        boolean exists = customerRepository.existsByLegalID(legalId);
+        if (!exists) {
+            falsePositives.increment();
+        }
+        return exists;
+    }
+
+    /**
+     * @return {@code false} only when the legal ID is certainly unknown
+     */
+    public boolean mightContain(String legalId) {
+        if (loaded && !filter.mightContain(legalId)) {
+            absent.increment();
+            return false;
+        }
+        maybePresent.increment();
+        return true;
+    }
+
+    public void put(String legalId) {
+        filter.put(legalId);
+    }
+
+    /**
+     * Adds the legal ID once the current transaction commits, so a rolled back insert leaves
+     * no entry behind.
+     */
+    public void putOnCommit(String legalId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(legalId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try (Stream<String> legalIds = customerRepository.streamLegalIds()) {
+            legalIds.forEach(filter::put);
+        }
+        loaded = true;
+        log.info("Legal ID filter loaded with {} IDs in {} ms (expected false-positive rate {})",
+                filter.approximateInsertions(), System.currentTimeMillis() - start,
+                filter.expectedFalsePositiveProbability());
+    }
+
+    private static Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customer.legal-id-filter.checks")
+                .description("Legal ID pre-checks by filter answer")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
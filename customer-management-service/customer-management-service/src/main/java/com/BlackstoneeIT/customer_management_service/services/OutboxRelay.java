@@ -0,0 +1,179 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.customer_management_service.entity.OutboxEvent;
+import com.BlackstoneeIT.customer_management_service.enums.OutboxStatus;
+import com.BlackstoneeIT.customer_management_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox: locks a batch of the oldest rows, publishes them all without waiting
+ * between sends, then deletes the acknowledged rows in one statement and commits. Rows whose
+ * send failed stay in the table and are retried on the next run, so delivery is at-least-once.
+ * A row that keeps failing for reasons of its own (not a broker outage) is parked as
+ * {@link OutboxStatus#DEAD} after {@code outbox.relay.max-attempts}, so it stops holding back the rows
+ * behind it. SKIP LOCKED lets several instances relay in parallel without handing out the same row twice.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+    private final Counter failures;
+    private final Counter deadLettered;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaProducerService kafkaProducerService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = maxAttempts;
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Outbox rows published per relay run")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time from outbox write to broker acknowledgement")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox rows whose publish failed and will be retried")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("outbox.relay.dead")
+                .description("Outbox rows parked as DEAD after too many failed publishes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:100}")
+    public void relay() {
+        // Keep draining while full batches are delivered, so a backlog clears without waiting a tick per
+        // batch; after any failed send, back off until the next tick instead of re-locking the same rows
+        int relayed;
+        do {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            relayed = count != null ? count : 0;
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * @return how many rows were delivered and deleted
+     */
+    int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Pipelined: every send is in flight before we wait on any acknowledgement
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            sends.add(publish(event));
+        }
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        long deadline = System.currentTimeMillis() + sendTimeoutMs;
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                delivered.add(event.getId());
+                lag.record(Duration.between(event.getCreatedDate(), LocalDateTime.now()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failures.increment();
+                recordFailure(event, e instanceof ExecutionException ? e.getCause() : e);
+            }
+        }
+
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(delivered);
+        }
+        batchSizes.record(delivered.size());
+        log.debug("Relayed {} of {} outbox events", delivered.size(), batch.size());
+        return delivered.size();
+    }
+
+    /**
+     * Counts the failure against the row, parking it once it reaches {@code maxAttempts}. The row is
+     * managed by the batch's transaction, so the change is written when the batch commits.
+     */
+    private void recordFailure(OutboxEvent event, Throwable error) {
+        if (isTransient(error)) {
+            log.warn("Failed to publish outbox event {} for key {}, will retry: {}",
+                    event.getId(), event.getMessageKey(), error.getMessage());
+            return;
+        }
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(String.valueOf(error));
+        if (event.getAttempts() < maxAttempts) {
+            log.warn("Failed to publish outbox event {} for key {} (attempt {} of {}), will retry: {}",
+                    event.getId(), event.getMessageKey(), event.getAttempts(), maxAttempts, error.getMessage());
+            return;
+        }
+        event.setStatus(OutboxStatus.DEAD);
+        deadLettered.increment();
+        log.error("Outbox event {} for key {} failed {} times, parked as DEAD: {}",
+                event.getId(), event.getMessageKey(), event.getAttempts(), error.getMessage());
+    }
+
+    // An unreachable or slow broker says nothing about the row, so it does not use up an attempt
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<?> publish(OutboxEvent event) {
+        try {
+            if (!OutboxService.ACCOUNT_CREATION_TOPIC.equals(event.getTopic())) {
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("No publisher for outbox topic " + event.getTopic()));
+            }
+            AccountCreationEvent payload = objectMapper.readValue(event.getPayload(), AccountCreationEvent.class);
+            return kafkaProducerService.sendAccountCreationEvent(payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
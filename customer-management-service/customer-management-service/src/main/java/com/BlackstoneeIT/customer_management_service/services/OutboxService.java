@@ -0,0 +1,43 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.customer_management_service.entity.OutboxEvent;
+import com.BlackstoneeIT.customer_management_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes events to the outbox table inside the caller's transaction, so an event exists
+ * if and only if the change that produced it was committed. {@link OutboxRelay} ships them.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OutboxService {
+
+    static final String ACCOUNT_CREATION_TOPIC = "account-creation-requests";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAccountCreation(AccountCreationEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize account creation event", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(ACCOUNT_CREATION_TOPIC)
+                .messageKey(event.getRequestId())
+                .payload(payload)
+                .build());
+        log.debug("Account creation event for request {} written to outbox", event.getRequestId());
+    }
+}
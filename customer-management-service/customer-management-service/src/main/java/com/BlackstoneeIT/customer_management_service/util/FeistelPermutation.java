@@ -0,0 +1,98 @@
+package com.BlackstoneeIT.customer_management_service.util;
+
+/**
+ * Keyed bijection over {@code [0, domainSize)}: a balanced Feistel network on the smallest
+ * even power-of-two domain that covers it, with cycle-walking to stay inside the range
+ * (format-preserving encryption in the FE1 style). Distinct inputs always give distinct
+ * outputs, so permuting a counter yields non-sequential values that can never collide.
+ * Not a cryptographic cipher; it only hides the ordering from outside observers.
+ */
+public final class FeistelPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final long domainSize;
+    private final int halfBits;
+    private final long halfMask;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public FeistelPermutation(long domainSize, long key) {
+        if (domainSize < 2) {
+            throw new IllegalArgumentException("Domain size must be at least 2");
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(domainSize - 1);
+        this.halfBits = Math.max(1, (bits + 1) / 2);
+        if (halfBits > 31) {
+            throw new IllegalArgumentException("Domain size too large: " + domainSize);
+        }
+        this.domainSize = domainSize;
+        this.halfMask = (1L << halfBits) - 1;
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = mix(state);
+        }
+    }
+
+    public long permute(long value) {
+        checkRange(value);
+        long result = value;
+        do {
+            // The network permutes the covering power-of-two domain; walk until back in range
+            result = encrypt(result);
+        } while (result >= domainSize);
+        return result;
+    }
+
+    public long inverse(long value) {
+        checkRange(value);
+        long result = value;
+        do {
+            result = decrypt(result);
+        } while (result >= domainSize);
+        return result;
+    }
+
+    public long getDomainSize() {
+        return domainSize;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (long roundKey : roundKeys) {
+            long next = left ^ round(right, roundKey);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long decrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int i = ROUNDS - 1; i >= 0; i--) {
+            long previous = right ^ round(left, roundKeys[i]);
+            right = left;
+            left = previous;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long round(long half, long roundKey) {
+        return mix(half ^ roundKey) & halfMask;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void checkRange(long value) {
+        if (value < 0 || value >= domainSize) {
+            throw new IllegalArgumentException("Value " + value + " outside [0, " + domainSize + ")");
+        }
+    }
+}
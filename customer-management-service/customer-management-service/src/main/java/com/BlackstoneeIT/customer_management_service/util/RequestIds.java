@@ -0,0 +1,45 @@
+package com.BlackstoneeIT.customer_management_service.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered request identifiers (UUID version 7 layout): the 48 most significant bits
+ * hold the Unix epoch millisecond the request was issued, so ids sort by creation time and
+ * the submission time can be recovered without any lookup.
+ */
+public final class RequestIds {
+
+    private RequestIds() {
+    }
+
+    public static String newTimeOrderedId() {
+        return newTimeOrderedId(System.currentTimeMillis()).toString();
+    }
+
+    static UUID newTimeOrderedId(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long msb = (epochMillis << 16)
+                | 0x7000L                              // version 7
+                | (random.nextLong() & 0x0FFFL);       // rand_a
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;                 // IETF variant
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * @return the epoch millis embedded in a time-ordered id, or {@code null} for random
+     * (version 4) or malformed ids, which have to be resolved without a time hint
+     */
+    public static Long extractTimestamp(String requestId) {
+        if (requestId == null) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(requestId);
+            return uuid.version() == 7 ? uuid.getMostSignificantBits() >>> 16 : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
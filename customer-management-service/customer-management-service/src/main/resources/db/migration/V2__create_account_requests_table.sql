@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS account_requests (
+    request_id VARCHAR(36) PRIMARY KEY,
+    customer_id BIGINT NOT NULL REFERENCES customers(id),
+    account_type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) CHECK (status IN ('PENDING', 'SUCCESS', 'VALIDATION_FAILED', 'FAILED')) NOT NULL DEFAULT 'PENDING',
+    account_id BIGINT,
+    message VARCHAR,
+    error_code VARCHAR(50),
+    created_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    );
+
+CREATE INDEX idx_account_requests_customer_id ON account_requests(customer_id);
@@ -0,0 +1,8 @@
+-- Hi/lo allocation of customer ids: each nextval reserves a block of 100 ids for one node.
+-- INCREMENT BY must match customer.id.block-size.
+CREATE SEQUENCE IF NOT EXISTS customer_id_block_seq
+    START WITH 1000000
+    INCREMENT BY 100
+    MINVALUE 1000000
+    MAXVALUE 9999900
+    NO CYCLE;
@@ -0,0 +1,5 @@
+-- Customer search (GET /api/v1/customers) filters on these and seeks on id.
+-- varchar_pattern_ops lets LIKE 'prefix%' use the index whatever the database collation.
+CREATE INDEX IF NOT EXISTS idx_customers_legal_id_prefix ON customers (legal_id varchar_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_customers_lower_email_id ON customers (lower(email), id);
+CREATE INDEX IF NOT EXISTS idx_customers_type_id ON customers (type, id);
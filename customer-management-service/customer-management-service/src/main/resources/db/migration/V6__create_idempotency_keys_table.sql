@@ -0,0 +1,12 @@
+-- Idempotency-Key reservations and the responses they replay; expired rows are purged by IdempotencyService
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id VARCHAR(300) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) CHECK (status IN ('IN_PROGRESS', 'COMPLETED')) NOT NULL,
+    response_status INTEGER,
+    response_body TEXT,
+    created_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+    );
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,7 @@
+-- Failed publishes are counted per row; after outbox.relay.max-attempts the row is parked as DEAD so it
+-- stops blocking the relay, and stays in the table with its last error for inspection and replay
+ALTER TABLE outbox ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE outbox ADD COLUMN status VARCHAR(20) CHECK (status IN ('PENDING', 'DEAD')) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE outbox ADD COLUMN last_error TEXT;
+
+CREATE INDEX idx_outbox_pending ON outbox(id) WHERE status = 'PENDING';
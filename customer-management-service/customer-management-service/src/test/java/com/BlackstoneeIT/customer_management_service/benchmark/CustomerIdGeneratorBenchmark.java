@@ -0,0 +1,110 @@
+package com.BlackstoneeIT.customer_management_service.benchmark;
+
+import com.BlackstoneeIT.customer_management_service.util.FeistelPermutation;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random probe-and-retry vs. permuted counter customer id generation at a given table fill.
+ * The table is an in-memory bitmap, so the timings leave out the database; the {@code probes}
+ * counter is the number of {@code existsById} round trips the random strategy would have made
+ * and {@code failures} the number of requests that would have errored after 20 attempts.
+ *
+ * <p>Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.BlackstoneeIT.customer_management_service.benchmark.CustomerIdGeneratorBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerIdGeneratorBenchmark {
+
+    private static final long MIN_CUSTOMER_ID = 1000000L;
+    private static final int ID_SPACE = 9000000;
+    private static final int MAX_ATTEMPTS = 20;
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"0.5", "0.9", "0.99"})
+        double fill;
+
+        BitSet taken;
+        FeistelPermutation permutation;
+        long counter;
+
+        @Setup(Level.Trial)
+        public void fill() {
+            taken = new BitSet(ID_SPACE);
+            SplittableRandom random = new SplittableRandom(42);
+            int target = (int) (ID_SPACE * fill);
+            for (int filled = 0; filled < target; ) {
+                int id = random.nextInt(ID_SPACE);
+                if (!taken.get(id)) {
+                    taken.set(id);
+                    filled++;
+                }
+            }
+            permutation = new FeistelPermutation(ID_SPACE, 42L);
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Probes {
+        public long probes;
+        public long failures;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            probes = 0;
+            failures = 0;
+        }
+    }
+
+    @Benchmark
+    public long random(Table table, Probes counters) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            int candidate = random.nextInt(ID_SPACE);
+            counters.probes++;
+            if (!table.taken.get(candidate)) {
+                return MIN_CUSTOMER_ID + candidate;
+            }
+        }
+        counters.failures++;
+        return -1;
+    }
+
+    @Benchmark
+    public long permuted(Table table) {
+        // Never probes: distinct counter values always map to distinct ids
+        long index = table.counter++ % ID_SPACE;
+        return MIN_CUSTOMER_ID + table.permutation.permute(index);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CustomerIdGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -1,27 +1,47 @@
 package com.BlackstoneeIT.customer_management_service.controller;
 
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
 import com.BlackstoneeIT.customer_management_service.dto.*;
+import com.BlackstoneeIT.customer_management_service.enums.BulkCustomerStatus;
 import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.exception.DuplicateCustomerException;
 import com.BlackstoneeIT.customer_management_service.exception.GlobalExceptionHandler;
+import com.BlackstoneeIT.customer_management_service.exception.IdempotencyKeyMismatchException;
+import com.BlackstoneeIT.customer_management_service.exception.RequestNotFoundException;
+import com.BlackstoneeIT.customer_management_service.exception.RateLimitExceededException;
+import com.BlackstoneeIT.customer_management_service.services.AccountCreationReplyService;
+import com.BlackstoneeIT.customer_management_service.services.AccountEventStreamService;
+import com.BlackstoneeIT.customer_management_service.services.AccountRequestRateLimiter;
 import com.BlackstoneeIT.customer_management_service.services.AccountStatusService;
+import com.BlackstoneeIT.customer_management_service.services.CustomerBulkImportService;
 import com.BlackstoneeIT.customer_management_service.services.CustomerServices;
+import com.BlackstoneeIT.customer_management_service.services.IdempotencyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static org.apache.tomcat.jni.Buffer.address;
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,6 +62,24 @@ class CustomerControllerTest {
     @Mock
     private AccountStatusService accountStatusService;
 
+    @Mock
+    private AccountEventStreamService accountEventStreamService;
+
+    @Mock
+    private AccountCreationReplyService accountCreationReplyService;
+
+    @Mock
+    private CustomerBulkImportService customerBulkImportService;
+
+    @Mock
+    private AccountRequestRateLimiter accountRequestRateLimiter;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private ObjectMapper controllerObjectMapper = new ObjectMapper();
+
     @InjectMocks
     private CustomerController customerController;
 
@@ -63,6 +101,7 @@ class CustomerControllerTest {
             mockMvc = MockMvcBuilders.standaloneSetup(customerController)
                     .setControllerAdvice(globalExceptionHandler) // Add this line
                     .build();
+            ReflectionTestUtils.setField(customerController, "maxWaitMs", 30000L);
             // Setup test data using Builder pattern
             createCustomer = CreateCustomer.builder()
                     .firstName("John")
@@ -110,6 +149,134 @@ class CustomerControllerTest {
         verify(customerServices, times(1)).createCustomer(any(CreateCustomer.class));
     }
 
+    @Test
+    void createCustomer_DuplicateLegalId_ReturnsConflict() throws Exception {
+        // Arrange
+        when(customerServices.createCustomer(any(CreateCustomer.class)))
+                .thenThrow(new DuplicateCustomerException("Customer with legal ID A123456789 already exists"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomer)))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.message").value("Customer with legal ID A123456789 already exists"));
+    }
+
+    @Test
+    void createCustomer_RepeatedIdempotencyKey_ReplaysOriginalResponse() throws Exception {
+        // Arrange
+        when(idempotencyService.execute(eq("customers"), eq("key-1"), any(CreateCustomer.class),
+                eq(CustomerResponse.class), any()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                        .header(IdempotencyService.REPLAYED_HEADER, "true")
+                        .body(customerResponse));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomer)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.customerId").value(1000001L));
+
+        verifyNoInteractions(customerServices);
+    }
+
+    @Test
+    void createAccount_IdempotencyKeyReusedForOtherRequest_ReturnsUnprocessableEntity() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        when(idempotencyService.execute(eq("accounts:" + customerId), eq("key-1"), any(),
+                eq(AccountCreationRequestResponse.class), any()))
+                .thenThrow(new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                        .header("Idempotency-Key", "key-1")
+                        .param("accountType", "SALARY"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used for a different request"));
+
+        verifyNoInteractions(customerServices, accountRequestRateLimiter);
+    }
+
+    @Test
+    void createAccount_IdempotencyKey_FingerprintsBalanceIndependentOfScale() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        when(idempotencyService.execute(eq("accounts:" + customerId), eq("key-1"), any(),
+                eq(AccountCreationRequestResponse.class), any()))
+                .thenReturn(ResponseEntity.status(HttpStatus.ACCEPTED).build());
+
+        // Act
+        for (String initialBalance : List.of("100", "100.0", "100.00", "1E+2")) {
+            mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                            .header("Idempotency-Key", "key-1")
+                            .param("accountType", "SAVING")
+                            .param("initialBalance", initialBalance))
+                    .andExpect(status().isAccepted());
+        }
+
+        // Assert
+        verify(idempotencyService, times(4)).execute(eq("accounts:" + customerId), eq("key-1"),
+                eq(List.of("SAVING", "100")), eq(AccountCreationRequestResponse.class), any());
+    }
+
+    @Test
+    void createCustomers_ValidBatch_StreamsResultPerRecord() throws Exception {
+        // Arrange
+        CreateCustomer duplicate = CreateCustomer.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .email("jane.doe@example.com")
+                .phoneNumber("+1234567891")
+                .legalID("A123456789")
+                .address("24 Main St, City, Country")
+                .customerType(CustomerType.RETAIL)
+                .build();
+        doAnswer(invocation -> {
+            Consumer<List<BulkCustomerResult>> sink = invocation.getArgument(1);
+            sink.accept(List.of(
+                    BulkCustomerResult.builder().index(0).legalID("A123456789")
+                            .status(BulkCustomerStatus.CREATED).customerId(1000001L).build(),
+                    BulkCustomerResult.builder().index(1).legalID("A123456789")
+                            .status(BulkCustomerStatus.DUPLICATE).message("Legal ID appears earlier in this request").build()));
+            return null;
+        }).when(customerBulkImportService).importCustomers(anyList(), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(post("/api/v1/customers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BulkCreateCustomers(List.of(createCustomer, duplicate)))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert - one NDJSON line per record, in request order
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("CREATED", objectMapper.readTree(lines[0]).get("status").asText());
+        assertEquals(1000001L, objectMapper.readTree(lines[0]).get("customerId").asLong());
+        assertEquals("DUPLICATE", objectMapper.readTree(lines[1]).get("status").asText());
+    }
+
+    @Test
+    void createCustomers_EmptyBatch_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BulkCreateCustomers(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(customerBulkImportService, never()).importCustomers(anyList(), any());
+    }
+
     @Test
     void getCustomerById_ValidId_ReturnsCustomerResponse() throws Exception {
         // Arrange
@@ -127,6 +294,64 @@ class CustomerControllerTest {
         verify(customerServices, times(1)).getCustomerById(customerId);
     }
 
+    @Test
+    void searchCustomers_WithFilters_ReturnsPageAndCursor() throws Exception {
+        // Arrange
+        CustomerPage page = new CustomerPage(List.of(customerResponse), 1000001L);
+        when(customerServices.searchCustomers("A123", null, CustomerType.CORPORATE, 1000000L, 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers")
+                        .param("legalIdPrefix", "A123")
+                        .param("type", "CORPORATE")
+                        .param("after", "1000000")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customers[0].customerId").value(1000001L))
+                .andExpect(jsonPath("$.nextCursor").value(1000001L));
+    }
+
+    @Test
+    void searchCustomers_LimitOutOfRange_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(customerServices.searchCustomers(null, null, null, null, 5000))
+                .thenThrow(new IllegalArgumentException("limit must be between 1 and 500"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCustomerById_MatchingIfNoneMatch_ReturnsNotModified() throws Exception {
+        // Arrange
+        long customerId = 1000001L;
+        when(customerServices.getCustomerVersion(customerId)).thenReturn(1700000000000L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers/{id}", customerId)
+                        .header("If-None-Match", "\"1000001-1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(customerServices, never()).getCustomerById(anyLong());
+    }
+
+    @Test
+    void getCustomerById_StaleIfNoneMatch_ReturnsBodyWithETag() throws Exception {
+        // Arrange
+        long customerId = 1000001L;
+        when(customerServices.getCustomerVersion(customerId)).thenReturn(1700000000001L);
+        when(customerServices.getCustomerById(customerId)).thenReturn(customerResponse);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers/{id}", customerId)
+                        .header("If-None-Match", "\"1000001-1700000000000\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1000001-1700000000001\""))
+                .andExpect(jsonPath("$.customerId").value(customerId));
+    }
+
     @Test
     void getCustomerById_NonExistentId_ReturnsNotFound() throws Exception {
         // Arrange
@@ -146,10 +371,15 @@ class CustomerControllerTest {
     void getAccountRequestStatus_ValidRequestId_ReturnsStatus() throws Exception {
         // Arrange
         String requestId = UUID.randomUUID().toString();
-        when(accountStatusService.getRequestStatus(requestId)).thenReturn(accountStatusDto);
+        when(accountStatusService.getRequestStatus(requestId))
+                .thenReturn(CompletableFuture.completedFuture(accountStatusDto));
 
         // Act & Assert
-        mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", requestId))
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", requestId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("PROCESSING"))
                 .andExpect(jsonPath("$.message").exists());
@@ -162,17 +392,138 @@ class CustomerControllerTest {
     void getAccountRequestStatus_NonExistentRequestId_ReturnsNotFound() throws Exception {
         // Arrange
         String nonExistentRequestId = "non-existent-uuid";
-        when(accountStatusService.getRequestStatus(nonExistentRequestId)).thenReturn(null);
+        when(accountStatusService.getRequestStatus(nonExistentRequestId)).thenReturn(CompletableFuture.failedFuture(
+                new RequestNotFoundException("Request not found: " + nonExistentRequestId)));
 
         // Act & Assert
-        mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", nonExistentRequestId))
-                .andExpect(status().isOk())
-                .andExpect(content().string(""));
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", nonExistentRequestId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Request not found: " + nonExistentRequestId));
 
         // Verify service method was called
         verify(accountStatusService, times(1)).getRequestStatus(nonExistentRequestId);
     }
 
+    @Test
+    void getAccountRequestStatus_LookupPoolSaturated_ReturnsServiceUnavailable() throws Exception {
+        // Arrange
+        String requestId = UUID.randomUUID().toString();
+        when(accountStatusService.getRequestStatus(requestId))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("pool full")));
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", requestId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void getAccountRequestStatuses_ValidBatch_ReturnsFoundPendingAndUnknown() throws Exception {
+        // Arrange
+        List<String> requestIds = List.of("req-found", "req-pending", "req-unknown");
+        BatchStatusResponse batch = BatchStatusResponse.builder()
+                .found(List.of(accountStatusDto))
+                .pending(List.of("req-pending"))
+                .unknown(List.of("req-unknown"))
+                .build();
+        when(accountStatusService.getRequestStatuses(requestIds)).thenReturn(batch);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/requests/status:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchStatusRequest(requestIds))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.length()").value(1))
+                .andExpect(jsonPath("$.pending[0]").value("req-pending"))
+                .andExpect(jsonPath("$.unknown[0]").value("req-unknown"));
+
+        // Verify all ids were resolved in a single service call
+        verify(accountStatusService, times(1)).getRequestStatuses(requestIds);
+    }
+
+    @Test
+    void getAccountRequestStatuses_EmptyBatch_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/requests/status:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchStatusRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(accountStatusService, never()).getRequestStatuses(any());
+    }
+
+    @Test
+    void awaitAccountRequestStatus_WithWaitMs_ReturnsStatusAsynchronously() throws Exception {
+        // Arrange
+        String requestId = UUID.randomUUID().toString();
+        when(accountStatusService.awaitRequestStatus(requestId, 5000L))
+                .thenReturn(CompletableFuture.completedFuture(accountStatusDto));
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", requestId)
+                        .param("waitMs", "5000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+
+        // Verify the long-poll path was used instead of the plain lookup
+        verify(accountStatusService, times(1)).awaitRequestStatus(requestId, 5000L);
+        verify(accountStatusService, never()).getRequestStatus(anyString());
+    }
+
+    @Test
+    void awaitAccountRequestStatus_NegativeWaitMs_ReturnsBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", "req-1")
+                        .param("waitMs", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountStatusService);
+    }
+
+    @Test
+    void awaitAccountRequestStatus_WaitMsAboveMaximum_IsClampedToMaxWait() throws Exception {
+        // Arrange
+        String requestId = UUID.randomUUID().toString();
+        when(accountStatusService.awaitRequestStatus(requestId, 30000L))
+                .thenReturn(new CompletableFuture<>());
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/customers/requests/{requestId}/status", requestId)
+                        .param("waitMs", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The servlet async timeout follows the clamped wait, not the requested one
+        assertEquals(31000L, mvcResult.getRequest().getAsyncContext().getTimeout());
+        verify(accountStatusService, times(1)).awaitRequestStatus(requestId, 30000L);
+    }
+
+    @Test
+    void streamAccountEvents_OpensEventStreamForCustomer() throws Exception {
+        // Arrange
+        long customerId = 1000001L;
+        when(accountEventStreamService.subscribe(customerId)).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/customers/{customerId}/accounts/events", customerId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        // Verify the subscription was registered for the customer
+        verify(accountEventStreamService, times(1)).subscribe(customerId);
+    }
+
     @Test
     void createAccount_ValidRequest_ReturnsAcceptedResponse() throws Exception {
         // Arrange
@@ -198,6 +549,24 @@ class CustomerControllerTest {
                 any(Long.class), any(String.class), any(BigDecimal.class), any(String.class));
     }
 
+    @Test
+    void createAccount_RateLimited_Returns429WithoutPublishing() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        doThrow(new RateLimitExceededException("Too many account requests for customer " + customerId, 6))
+                .when(accountRequestRateLimiter).acquire(eq(customerId), eq("mobile-app"), anyString());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                        .header("X-Client-Id", "mobile-app")
+                        .param("accountType", "SAVING"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "6"))
+                .andExpect(jsonPath("$.message").value("Too many account requests for customer " + customerId));
+
+        verifyNoInteractions(customerServices);
+    }
+
     @Test
     void createAccount_WithDefaultBalance_ReturnsAcceptedResponse() throws Exception {
         // Arrange
@@ -220,6 +589,99 @@ class CustomerControllerTest {
                 any(Long.class), any(String.class), any(BigDecimal.class), any(String.class));
     }
 
+    @Test
+    void createAccountAndWait_ReplyArrives_ReturnsOutcomeInline() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        AccountCreationResponse reply = AccountCreationResponse.success("req-1", 1000001001L, customerId);
+        when(accountCreationReplyService.requestAndAwait(
+                eq(customerId), eq("SAVING"), any(BigDecimal.class), anyString(), eq(2000L)))
+                .thenReturn(CompletableFuture.completedFuture(reply));
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                        .param("accountType", "SAVING")
+                        .param("mode", "sync")
+                        .param("timeoutMs", "2000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SUCCESS"))
+                .andExpect(jsonPath("$.accountId").value(1000001001L));
+
+        // Verify the asynchronous path was not used
+        verify(customerServices, never()).requestAccountCreation(any(), any(), any(), any());
+    }
+
+    @Test
+    void createAccountAndWait_NoReplyInTime_FallsBackToAccepted() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        when(accountCreationReplyService.requestAndAwait(
+                eq(customerId), eq("SAVING"), any(BigDecimal.class), anyString(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                        .param("accountType", "SAVING")
+                        .param("mode", "sync"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.statusUrl").exists());
+    }
+
+    @Test
+    void createAccountAndWait_NegativeTimeoutMs_ReturnsBadRequestWithoutPublishing() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", 1000001L)
+                        .param("accountType", "SAVING")
+                        .param("mode", "sync")
+                        .param("timeoutMs", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountCreationReplyService, accountRequestRateLimiter);
+    }
+
+    @Test
+    void createAccountAndWait_TimeoutAboveMaximum_IsClampedToMaxWait() throws Exception {
+        // Arrange
+        Long customerId = 1000001L;
+        when(accountCreationReplyService.requestAndAwait(
+                eq(customerId), eq("SAVING"), any(BigDecimal.class), anyString(), eq(30000L)))
+                .thenReturn(new CompletableFuture<>());
+
+        // Act & Assert
+        MvcResult mvcResult = mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", customerId)
+                        .param("accountType", "SAVING")
+                        .param("mode", "sync")
+                        .param("timeoutMs", String.valueOf(Long.MAX_VALUE)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The servlet async timeout follows the clamped wait, not the requested one
+        assertEquals(31000L, mvcResult.getRequest().getAsyncContext().getTimeout());
+        verify(accountCreationReplyService, times(1)).requestAndAwait(
+                eq(customerId), eq("SAVING"), any(BigDecimal.class), anyString(), eq(30000L));
+    }
+
+    @Test
+    void createAccountAndWait_WithIdempotencyKey_ReturnsBadRequestWithoutPublishing() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/customers/{customerId}/accounts", 1000001L)
+                        .header("Idempotency-Key", "retry-1")
+                        .param("accountType", "SAVING")
+                        .param("mode", "sync"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(accountCreationReplyService, accountRequestRateLimiter, idempotencyService);
+    }
+
     @Test
     void testEndpoint_SendsKafkaMessage_ReturnsOk() throws Exception {
         // Arrange
@@ -281,7 +743,7 @@ class CustomerControllerTest {
 
         // Act
         ResponseEntity<AccountCreationRequestResponse> response = customerController.createAccount(
-                customerId, "SAVING", new BigDecimal("500.00"));
+                customerId, "SAVING", new BigDecimal("500.00"), null, null, new MockHttpServletRequest());
 
         // Assert
         assertNotNull(response);
@@ -290,6 +752,7 @@ class CustomerControllerTest {
         AccountCreationRequestResponse body = response.getBody();
         assertNotNull(body);
         assertNotNull(body.getRequestId());
+        assertEquals(7, UUID.fromString(body.getRequestId()).version());
         assertEquals(customerId, body.getCustomerId());
         assertEquals("PENDING", body.getStatus());
         assertTrue(body.getMessage().contains("submitted for processing"));
@@ -302,7 +765,7 @@ class CustomerControllerTest {
         when(customerServices.createCustomer(any(CreateCustomer.class))).thenReturn(customerResponse);
 
         // Act
-        ResponseEntity<CustomerResponse> response = customerController.createCustomer(createCustomer);
+        ResponseEntity<CustomerResponse> response = customerController.createCustomer(createCustomer, null);
 
         // Assert
         assertNotNull(response);
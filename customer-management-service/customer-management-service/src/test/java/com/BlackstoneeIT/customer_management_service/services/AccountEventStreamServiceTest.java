@@ -0,0 +1,133 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountEventStreamServiceTest {
+
+    private static final Long CUSTOMER_ID = 1000001L;
+    private static final int BUFFER_SIZE = 3;
+
+    private AccountEventStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new AccountEventStreamService(60_000, BUFFER_SIZE, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void publish_SlowSubscriber_DropsOldestAndDeliversTheRest() throws Exception {
+        // Arrange: the client is stuck on the first event
+        BlockingEmitter emitter = new BlockingEmitter();
+        streamService.subscribe(CUSTOMER_ID, emitter);
+        streamService.publish(response("req-0"));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+
+        // Act: five more events arrive while it is blocked; the buffer holds three
+        IntStream.rangeClosed(1, 5).forEach(i -> streamService.publish(response("req-" + i)));
+
+        // Assert
+        assertEquals(2, streamService.droppedCount(CUSTOMER_ID));
+        emitter.release.countDown();
+        assertTrue(emitter.delivered(4));
+        assertEquals(List.of("req-0", "req-3", "req-4", "req-5"), emitter.sent);
+    }
+
+    @Test
+    void publish_SubscriberDisconnected_StopsDelivering() throws Exception {
+        // Arrange
+        BlockingEmitter emitter = new BlockingEmitter();
+        emitter.failing = true;
+        emitter.release.countDown();
+        streamService.subscribe(CUSTOMER_ID, emitter);
+
+        // Act
+        streamService.publish(response("req-0"));
+        assertTrue(emitter.sending.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        streamService.publish(response("req-1"));
+        Thread.sleep(100);
+
+        // Assert
+        assertEquals(1, emitter.attempts);
+        assertEquals(0, streamService.droppedCount(CUSTOMER_ID));
+    }
+
+    @Test
+    void publish_OtherCustomer_IsNotDelivered() throws Exception {
+        // Arrange
+        BlockingEmitter emitter = new BlockingEmitter();
+        emitter.release.countDown();
+        streamService.subscribe(CUSTOMER_ID, emitter);
+
+        // Act
+        AccountCreationResponse other = response("req-other");
+        other.setCustomerId(1000002L);
+        streamService.publish(other);
+        streamService.publish(response("req-0"));
+
+        // Assert
+        assertTrue(emitter.delivered(1));
+        assertEquals(List.of("req-0"), emitter.sent);
+    }
+
+    private static AccountCreationResponse response(String requestId) {
+        AccountCreationResponse response = new AccountCreationResponse();
+        response.setRequestId(requestId);
+        response.setCustomerId(CUSTOMER_ID);
+        response.setStatus("SUCCESS");
+        return response;
+    }
+
+    /**
+     * Stands in for a client connection: each send waits for {@code release}, and records the event id.
+     */
+    private static final class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+        private volatile int attempts;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            sending.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            String event = builder.build().iterator().next().getData().toString();
+            sent.add(event.substring(event.indexOf("id:") + 3, event.indexOf('\n')));
+        }
+
+        private boolean delivered(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (sent.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            return sent.size() == count;
+        }
+    }
+}
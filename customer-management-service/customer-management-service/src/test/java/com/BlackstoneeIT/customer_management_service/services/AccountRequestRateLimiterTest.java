@@ -0,0 +1,141 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.enums.CustomerType;
+import com.BlackstoneeIT.customer_management_service.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class AccountRequestRateLimiterTest {
+
+    private static final String GATEWAY = "10.0.0.1";
+    private static final String CALLER = "192.168.1.20";
+
+    @Mock
+    private CustomerTypeIndex customerTypeIndex;
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+
+    // Retail: one token every 6 s, burst 1. Corporate: one token per second, burst 2
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("account-requests.rate-limit.customer.retail.per-minute", "10")
+            .withProperty("account-requests.rate-limit.customer.retail.burst", "1")
+            .withProperty("account-requests.rate-limit.customer.corporate.per-minute", "60")
+            .withProperty("account-requests.rate-limit.customer.corporate.burst", "2")
+            .withProperty("account-requests.rate-limit.customer.investment.per-minute", "60")
+            .withProperty("account-requests.rate-limit.customer.investment.burst", "2");
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(customerTypeIndex.find(anyLong())).thenReturn(CustomerType.CORPORATE);
+        lenient().when(customerTypeIndex.find(1000001L)).thenReturn(CustomerType.RETAIL);
+        lenient().when(customerTypeIndex.find(1000009L)).thenReturn(null);
+    }
+
+    @Test
+    void acquire_BurstUsedUp_RejectsUntilNextTokenIsDue() {
+        AccountRequestRateLimiter limiter = limiter(600, 50);
+
+        limiter.acquire(1000002L, null, CALLER);
+        limiter.acquire(1000002L, null, CALLER);
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000002L, null, CALLER));
+        assertEquals(1, rejected.getRetryAfterSeconds());
+
+        advance(999);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1000002L, null, CALLER));
+        advance(1);
+        assertDoesNotThrow(() -> limiter.acquire(1000002L, null, CALLER));
+    }
+
+    @Test
+    void acquire_Rejected_RetryAfterIsRoundedUpToWholeSeconds() {
+        AccountRequestRateLimiter limiter = limiter(600, 50);
+        limiter.acquire(1000001L, null, CALLER);
+
+        // Next retail token is due 6 s after the first request
+        assertEquals(6, assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000001L, null, CALLER)).getRetryAfterSeconds());
+        advance(2_500);
+        assertEquals(4, assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000001L, null, CALLER)).getRetryAfterSeconds());
+        advance(3_499);
+        assertEquals(1, assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000001L, null, CALLER)).getRetryAfterSeconds());
+    }
+
+    @Test
+    void acquire_UnknownCustomer_GetsStrictestLimit() {
+        AccountRequestRateLimiter limiter = limiter(600, 50);
+
+        limiter.acquire(1000009L, null, CALLER);
+        assertEquals(6, assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000009L, null, CALLER)).getRetryAfterSeconds());
+    }
+
+    @Test
+    void acquire_CustomerLimited_RefundsClientToken() {
+        // Client: burst 2
+        AccountRequestRateLimiter limiter = limiter(60, 2);
+
+        limiter.acquire(1000001L, null, CALLER);
+        RateLimitExceededException customerRejection = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000001L, null, CALLER));
+        assertTrue(customerRejection.getMessage().contains("customer 1000001"));
+
+        // The rejected request gave its client token back, so one is left for another customer
+        limiter.acquire(1000002L, null, CALLER);
+        RateLimitExceededException clientRejection = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(1000003L, null, CALLER));
+        assertEquals("Too many account requests from this client", clientRejection.getMessage());
+    }
+
+    @Test
+    void acquire_ClientIdFromUntrustedCaller_IsIgnored() {
+        AccountRequestRateLimiter limiter = limiter(60, 1);
+
+        limiter.acquire(1000002L, "client-a", CALLER);
+        // A fresh header value does not buy a fresh bucket
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1000003L, "client-b", CALLER));
+    }
+
+    @Test
+    void acquire_ClientIdFromTrustedGateway_KeysTheClientBucket() {
+        AccountRequestRateLimiter limiter = limiter(60, 1);
+
+        limiter.acquire(1000002L, "client-a", GATEWAY);
+        limiter.acquire(1000003L, "client-b", GATEWAY);
+        assertThrows(RateLimitExceededException.class, () -> limiter.acquire(1000004L, "client-a", GATEWAY));
+    }
+
+    @Test
+    void acquire_Disabled_NeverRejects() {
+        AccountRequestRateLimiter limiter = new AccountRequestRateLimiter(customerTypeIndex, environment,
+                new SimpleMeterRegistry(), false, 1024, 1, 1, "", clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(1000001L, null, CALLER);
+        }
+    }
+
+    private AccountRequestRateLimiter limiter(int clientPerMinute, int clientBurst) {
+        return new AccountRequestRateLimiter(customerTypeIndex, environment, new SimpleMeterRegistry(),
+                true, 1024, clientPerMinute, clientBurst, GATEWAY + ", 10.0.0.2", clock::get);
+    }
+
+    private void advance(long millis) {
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
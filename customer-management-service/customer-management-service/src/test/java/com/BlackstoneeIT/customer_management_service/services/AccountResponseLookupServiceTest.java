@@ -0,0 +1,121 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountResponseLookupServiceTest {
+
+    private static final String REQUEST_ID = "req-123";
+    private static final Long SUBMITTED_AT = 1_700_000_000_000L;
+
+    @Mock
+    private KafkaTopicReaderService kafkaTopicReaderService;
+
+    private AccountResponseLookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        lookupService = new AccountResponseLookupService(
+                kafkaTopicReaderService, Duration.ofMinutes(1), 100, 2, 10, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookupService.shutdown();
+    }
+
+    @Test
+    void findResponse_CompletedScanMisses_IsRememberedAsMiss() {
+        // Arrange
+        when(kafkaTopicReaderService.scanResponses(Set.of(REQUEST_ID), SUBMITTED_AT))
+                .thenReturn(new KafkaTopicReaderService.ScanResult(Map.of(), true));
+
+        // Act & Assert
+        assertNull(lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        assertNull(lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        verify(kafkaTopicReaderService, times(1)).findResponseByRequestId(REQUEST_ID, SUBMITTED_AT);
+        verify(kafkaTopicReaderService, times(1)).scanResponses(Set.of(REQUEST_ID), SUBMITTED_AT);
+    }
+
+    @Test
+    void findResponse_IncompleteScan_IsNotRememberedAsMiss() {
+        // Arrange
+        AccountCreationResponse response = new AccountCreationResponse();
+        response.setRequestId(REQUEST_ID);
+        when(kafkaTopicReaderService.scanResponses(Set.of(REQUEST_ID), SUBMITTED_AT))
+                .thenReturn(new KafkaTopicReaderService.ScanResult(Map.of(), false))
+                .thenReturn(new KafkaTopicReaderService.ScanResult(Map.of(REQUEST_ID, response), true));
+
+        // Act & Assert
+        assertNull(lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        assertSame(response, lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        verify(kafkaTopicReaderService, times(2)).scanResponses(Set.of(REQUEST_ID), SUBMITTED_AT);
+    }
+
+    @Test
+    void findResponse_QuickPollHit_SkipsScan() {
+        // Arrange
+        AccountCreationResponse response = new AccountCreationResponse();
+        when(kafkaTopicReaderService.findResponseByRequestId(REQUEST_ID, SUBMITTED_AT)).thenReturn(response);
+
+        // Act & Assert
+        assertSame(response, lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        verify(kafkaTopicReaderService, never()).scanResponses(anySet(), any());
+    }
+
+    @Test
+    void findResponse_ConcurrentCallers_ShareOneLookupWithoutBlocking() throws Exception {
+        // Arrange
+        AccountCreationResponse response = new AccountCreationResponse();
+        CountDownLatch release = new CountDownLatch(1);
+        when(kafkaTopicReaderService.findResponseByRequestId(REQUEST_ID, SUBMITTED_AT)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        // Act: neither call waits for the broker
+        CompletableFuture<AccountCreationResponse> first = lookupService.findResponse(REQUEST_ID, SUBMITTED_AT);
+        CompletableFuture<AccountCreationResponse> second = lookupService.findResponse(REQUEST_ID, SUBMITTED_AT);
+
+        // Assert
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+        second.cancel(true);
+        release.countDown();
+        assertSame(response, first.get(5, TimeUnit.SECONDS));
+        verify(kafkaTopicReaderService, times(1)).findResponseByRequestId(REQUEST_ID, SUBMITTED_AT);
+    }
+
+    @Test
+    void findResponse_DifferentSubmissionTime_IsSeparateLookup() {
+        // Arrange
+        when(kafkaTopicReaderService.scanResponses(eq(Set.of(REQUEST_ID)), any()))
+                .thenReturn(new KafkaTopicReaderService.ScanResult(Map.of(), true));
+
+        // Act
+        assertNull(lookupService.findResponse(REQUEST_ID, SUBMITTED_AT).join());
+        assertNull(lookupService.findResponse(REQUEST_ID, null).join());
+
+        // Assert: a miss from the submission time says nothing about the rest of the topic
+        verify(kafkaTopicReaderService).scanResponses(Set.of(REQUEST_ID), SUBMITTED_AT);
+        verify(kafkaTopicReaderService).scanResponses(Set.of(REQUEST_ID), null);
+    }
+}
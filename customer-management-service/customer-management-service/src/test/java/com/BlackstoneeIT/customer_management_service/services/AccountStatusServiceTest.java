@@ -0,0 +1,75 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationResponse;
+import com.BlackstoneeIT.customer_management_service.dto.AccountStatusDto;
+import com.BlackstoneeIT.customer_management_service.exception.RequestNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountStatusServiceTest {
+
+    private static final String REQUEST_ID = "req-123";
+
+    @Mock
+    private KafkaTopicReaderService kafkaTopicReaderService;
+
+    @Mock
+    private AccountResponseStore accountResponseStore;
+
+    @Mock
+    private AccountRequestService accountRequestService;
+
+    @Mock
+    private AccountResponseWaiters accountResponseWaiters;
+
+    @Mock
+    private AccountResponseLookupService accountResponseLookupService;
+
+    @InjectMocks
+    private AccountStatusService accountStatusService;
+
+    @Test
+    void getRequestStatus_KafkaFallback_ReturnsWithoutWaitingForLookup() {
+        // Arrange
+        CompletableFuture<AccountCreationResponse> lookup = new CompletableFuture<>();
+        when(accountRequestService.findByRequestId(REQUEST_ID)).thenReturn(Optional.empty());
+        when(accountResponseLookupService.findResponse(eq(REQUEST_ID), any())).thenReturn(lookup);
+        AccountCreationResponse response = new AccountCreationResponse();
+        response.setRequestId(REQUEST_ID);
+        response.setStatus("SUCCESS");
+
+        // Act
+        CompletableFuture<AccountStatusDto> status = accountStatusService.getRequestStatus(REQUEST_ID);
+
+        // Assert
+        assertFalse(status.isDone());
+        lookup.complete(response);
+        assertEquals("SUCCESS", status.join().getStatus());
+    }
+
+    @Test
+    void getRequestStatus_UnknownRequest_FailsWithNotFound() {
+        // Arrange
+        when(accountRequestService.findByRequestId(REQUEST_ID)).thenReturn(Optional.empty());
+        when(accountResponseLookupService.findResponse(eq(REQUEST_ID), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act & Assert
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> accountStatusService.getRequestStatus(REQUEST_ID).get());
+        assertInstanceOf(RequestNotFoundException.class, exception.getCause());
+        verifyNoInteractions(accountResponseWaiters);
+    }
+}
@@ -0,0 +1,235 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.customer_management_service.dto.CustomerResponse;
+import com.BlackstoneeIT.customer_management_service.entity.IdempotencyRecord;
+import com.BlackstoneeIT.customer_management_service.enums.IdempotencyStatus;
+import com.BlackstoneeIT.customer_management_service.exception.IdempotencyKeyConflictException;
+import com.BlackstoneeIT.customer_management_service.exception.IdempotencyKeyMismatchException;
+import com.BlackstoneeIT.customer_management_service.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final Duration TTL = Duration.ofHours(24);
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdempotencyService idempotencyService;
+
+    private final CustomerResponse created = CustomerResponse.builder()
+            .customerId(1000001L)
+            .firstName("John")
+            .lastName("Doe")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper, transactionManager,
+                new SimpleMeterRegistry(), TTL, LEASE, 1000);
+    }
+
+    @Test
+    void execute_FirstRequest_RunsActionAndStoresResponse() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(eq("customers:key-1"), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        ResponseEntity<CustomerResponse> response = execute("key-1", "request", runs);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(created, response.getBody());
+        assertEquals(1, runs.get());
+        verify(idempotencyRecordRepository).complete(eq("customers:key-1"), eq(IdempotencyStatus.COMPLETED),
+                eq(201), contains("\"customerId\":1000001"), any());
+    }
+
+    @Test
+    void execute_ReservesKeyForTheLease() {
+        // Arrange
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> expiresAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), now.capture(), expiresAt.capture()))
+                .thenReturn(1);
+
+        // Act
+        execute("key-1", "request", new AtomicInteger());
+
+        // Assert: an abandoned reservation can be taken over once the lease runs out
+        assertEquals(LEASE, Duration.between(now.getValue(), expiresAt.getValue()));
+    }
+
+    @Test
+    void execute_RepeatedKey_ReplaysFromMemoryWithoutRunningAgain() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        execute("key-1", "request", runs);
+
+        // Act
+        ResponseEntity<CustomerResponse> replay = execute("key-1", "request", runs);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals(created, replay.getBody());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(1, runs.get());
+        verify(idempotencyRecordRepository, times(1)).reserve(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void execute_KeyCompletedOnAnotherNode_ReplaysStoredResponse() throws Exception {
+        // Arrange: the first attempt ran elsewhere, so this node only finds the stored row
+        AtomicInteger runs = new AtomicInteger();
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1, 0);
+        execute("key-0", "request", new AtomicInteger());
+        String requestHash = storedRequestHash();
+
+        when(idempotencyRecordRepository.findById("customers:key-1")).thenReturn(Optional.of(
+                completedRecord("customers:key-1", requestHash, objectMapper.writeValueAsString(created))));
+
+        // Act
+        ResponseEntity<CustomerResponse> replay = execute("key-1", "request", runs);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals(created, replay.getBody());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_KeyStillInProgress_ThrowsConflict() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById("customers:key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id("customers:key-1")
+                .requestHash("hash")
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .build()));
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class, () -> execute("key-1", "request", runs));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest_ThrowsMismatch() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+        execute("key-1", "request", runs);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyMismatchException.class, () -> execute("key-1", "other request", runs));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesKeySoARetryRunsAgain() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1);
+        Supplier<ResponseEntity<CustomerResponse>> failing = () -> {
+            throw new IllegalStateException("database down");
+        };
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(
+                "customers", "key-1", "request", CustomerResponse.class, failing));
+        verify(idempotencyRecordRepository).deleteByIdAndStatus("customers:key-1", IdempotencyStatus.IN_PROGRESS);
+        verify(idempotencyRecordRepository, never()).complete(anyString(), any(), anyInt(), any(), any());
+
+        AtomicInteger runs = new AtomicInteger();
+        execute("key-1", "request", runs);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_StoreFails_FailsRequestAndHoldsKeySoARetryDoesNotRunAgain() {
+        // Arrange
+        when(idempotencyRecordRepository.reserve(anyString(), anyString(), any(), any())).thenReturn(1, 0);
+        when(idempotencyRecordRepository.complete(anyString(), any(), anyInt(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        ArgumentCaptor<LocalDateTime> heldUntil = ArgumentCaptor.forClass(LocalDateTime.class);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> execute("key-1", "request", runs));
+        verify(idempotencyRecordRepository).extend(eq("customers:key-1"), eq(IdempotencyStatus.IN_PROGRESS),
+                heldUntil.capture());
+        assertTrue(heldUntil.getValue().isAfter(LocalDateTime.now().plus(TTL).minusMinutes(1)));
+        verify(idempotencyRecordRepository, never()).deleteByIdAndStatus(anyString(), any());
+
+        String requestHash = storedRequestHash();
+        when(idempotencyRecordRepository.findById("customers:key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id("customers:key-1")
+                .requestHash(requestHash)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .build()));
+        assertThrows(IdempotencyKeyConflictException.class, () -> execute("key-1", "request", runs));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_BlankKey_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> execute(" ", "request", new AtomicInteger()));
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    private ResponseEntity<CustomerResponse> execute(String key, Object request, AtomicInteger runs) {
+        return idempotencyService.execute("customers", key, request, CustomerResponse.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        });
+    }
+
+    // The hash the service stored for the last completed request
+    private String storedRequestHash() {
+        ArgumentCaptor<String> requestHash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyRecordRepository, atLeastOnce()).reserve(anyString(), requestHash.capture(), any(), any());
+        return requestHash.getValue();
+    }
+
+    private static IdempotencyRecord completedRecord(String id, String requestHash, String body) {
+        return IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .status(IdempotencyStatus.COMPLETED)
+                .responseStatus(201)
+                .responseBody(body)
+                .build();
+    }
+}
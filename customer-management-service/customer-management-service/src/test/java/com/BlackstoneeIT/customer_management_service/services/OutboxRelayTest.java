@@ -0,0 +1,162 @@
+package com.BlackstoneeIT.customer_management_service.services;
+
+import com.BlackstoneeIT.account_events.AccountCreationEvent;
+import com.BlackstoneeIT.customer_management_service.entity.OutboxEvent;
+import com.BlackstoneeIT.customer_management_service.enums.OutboxStatus;
+import com.BlackstoneeIT.customer_management_service.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.RecordTooLargeException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 3;
+    private static final int MAX_ATTEMPTS = 2;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaProducerService kafkaProducerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaProducerService, objectMapper,
+                transactionManager, BATCH_SIZE, 100, MAX_ATTEMPTS, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void relay_BrokerDown_StopsAfterOneBatchAndKeepsRows() throws Exception {
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(fullBatch());
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(1)).lockNextBatch(BATCH_SIZE);
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void relay_PartialFailure_DeletesDeliveredAndWaitsForNextTick() throws Exception {
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(fullBatch());
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(1)).lockNextBatch(BATCH_SIZE);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+    }
+
+    @Test
+    void relay_FullBatchDelivered_KeepsDraining() throws Exception {
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(fullBatch()).thenReturn(List.of());
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).lockNextBatch(BATCH_SIZE);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void relay_RowKeepsFailing_ParkedAsDeadAfterMaxAttempts() throws Exception {
+        // Arrange: the same locked rows come back each run, as they would from the table
+        List<OutboxEvent> batch = fullBatch();
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(batch);
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new RecordTooLargeException("too large")));
+
+        // Act & Assert
+        outboxRelay.relay();
+        assertTrue(batch.stream().allMatch(event -> event.getStatus() == OutboxStatus.PENDING));
+        assertEquals(1, batch.get(0).getAttempts());
+
+        outboxRelay.relay();
+        assertTrue(batch.stream().allMatch(event -> event.getStatus() == OutboxStatus.DEAD));
+        assertEquals(MAX_ATTEMPTS, batch.get(0).getAttempts());
+        assertTrue(batch.get(0).getLastError().contains("too large"));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void relay_BrokerUnavailable_DoesNotUseUpAttempts() throws Exception {
+        // Arrange
+        List<OutboxEvent> batch = fullBatch();
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(batch);
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenAnswer(invocation -> CompletableFuture.failedFuture(new TimeoutException("metadata not available")))
+                .thenAnswer(invocation -> new CompletableFuture<>());
+
+        // Act: the first row fails with a retriable error, the others never get acknowledged
+        for (int i = 0; i <= MAX_ATTEMPTS; i++) {
+            outboxRelay.relay();
+        }
+
+        // Assert
+        assertTrue(batch.stream().allMatch(event -> event.getStatus() == OutboxStatus.PENDING));
+        assertTrue(batch.stream().allMatch(event -> event.getAttempts() == 0));
+    }
+
+    @Test
+    void relay_UnknownTopic_CountsAttemptWithoutSending() throws Exception {
+        // Arrange
+        List<OutboxEvent> batch = fullBatch();
+        batch.get(1).setTopic("unknown-topic");
+        when(outboxEventRepository.lockNextBatch(anyInt())).thenReturn(batch);
+        when(kafkaProducerService.sendAccountCreationEvent(any(AccountCreationEvent.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(kafkaProducerService, times(2)).sendAccountCreationEvent(any(AccountCreationEvent.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 3L));
+        assertEquals(1, batch.get(1).getAttempts());
+    }
+
+    private List<OutboxEvent> fullBatch() throws Exception {
+        String payload = objectMapper.writeValueAsString(new AccountCreationEvent());
+        return LongStream.rangeClosed(1, BATCH_SIZE)
+                .mapToObj(id -> OutboxEvent.builder()
+                        .id(id)
+                        .topic(OutboxService.ACCOUNT_CREATION_TOPIC)
+                        .messageKey("request-" + id)
+                        .payload(payload)
+                        .createdDate(LocalDateTime.now())
+                        .build())
+                .toList();
+    }
+}
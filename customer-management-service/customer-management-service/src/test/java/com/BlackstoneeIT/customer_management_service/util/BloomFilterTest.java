@@ -0,0 +1,88 @@
+package com.BlackstoneeIT.customer_management_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 100_000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    void mightContain_EveryPutValue_ReturnsTrue() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put(legalId(i));
+        }
+
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            assertTrue(filter.mightContain(legalId(i)), "false negative for " + legalId(i));
+        }
+    }
+
+    @Test
+    void mightContain_AtConfiguredCapacity_StaysNearConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        for (int i = 0; i < EXPECTED_INSERTIONS; i++) {
+            filter.put(legalId(i));
+        }
+
+        int probes = 200_000;
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> filter.mightContain("absent-" + i))
+                .count();
+
+        // Sized for 1%; allow for hashing and sampling noise, but not a broken filter
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate < 2 * FALSE_POSITIVE_PROBABILITY, "false positive rate " + rate);
+        assertEquals(FALSE_POSITIVE_PROBABILITY, filter.expectedFalsePositiveProbability(), 0.005);
+    }
+
+    @Test
+    void put_ConcurrentWriters_LoseNoValues() {
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_PROBABILITY);
+        String[] values = IntStream.range(0, EXPECTED_INSERTIONS)
+                .mapToObj(i -> UUID.randomUUID().toString())
+                .toArray(String[]::new);
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(writer -> CompletableFuture.runAsync(() -> {
+                    for (int i = writer; i < values.length; i += 8) {
+                        filter.put(values[i]);
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), "false negative for " + value);
+        }
+    }
+
+    @Test
+    void put_RepeatedValue_IsNotCountedAgain() {
+        BloomFilter filter = new BloomFilter(1000, FALSE_POSITIVE_PROBABILITY);
+
+        filter.put("A123456789");
+        filter.put("A123456789");
+
+        assertEquals(1, filter.approximateInsertions());
+        assertFalse(filter.mightContain("B987654321"));
+    }
+
+    @Test
+    void constructor_InvalidSizing_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, FALSE_POSITIVE_PROBABILITY));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1000, 1));
+    }
+
+    private static String legalId(int i) {
+        return String.format("A%09d", i);
+    }
+}
@@ -0,0 +1,71 @@
+package com.BlackstoneeIT.customer_management_service.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeistelPermutationTest {
+
+    private static final long[] KEYS = {0L, 1L, 42L, -7L, 0x5DEECE66DL};
+
+    @ParameterizedTest
+    @ValueSource(longs = {2, 3, 7, 16, 1000, 4097})
+    void permute_SmallDomain_IsBijectionAndInverseRoundTrips(long domainSize) {
+        for (long key : KEYS) {
+            FeistelPermutation permutation = new FeistelPermutation(domainSize, key);
+            BitSet seen = new BitSet((int) domainSize);
+
+            for (long value = 0; value < domainSize; value++) {
+                long permuted = permutation.permute(value);
+                assertTrue(permuted >= 0 && permuted < domainSize, "out of range: " + permuted);
+                assertFalse(seen.get((int) permuted), "collision on " + permuted + " with key " + key);
+                seen.set((int) permuted);
+                assertEquals(value, permutation.inverse(permuted));
+            }
+            assertEquals(domainSize, seen.cardinality());
+        }
+    }
+
+    @Test
+    void permute_Counter_IsNotSequential() {
+        FeistelPermutation permutation = new FeistelPermutation(1_000_000, 42L);
+
+        long sequentialSteps = 0;
+        for (long value = 0; value < 1000; value++) {
+            if (permutation.permute(value + 1) == permutation.permute(value) + 1) {
+                sequentialSteps++;
+            }
+        }
+
+        assertTrue(sequentialSteps < 10, "sequential steps: " + sequentialSteps);
+    }
+
+    @Test
+    void permute_DifferentKeys_GiveDifferentPermutations() {
+        FeistelPermutation first = new FeistelPermutation(1000, 1L);
+        FeistelPermutation second = new FeistelPermutation(1000, 2L);
+
+        long differing = 0;
+        for (long value = 0; value < 1000; value++) {
+            if (first.permute(value) != second.permute(value)) {
+                differing++;
+            }
+        }
+
+        assertTrue(differing > 900, "differing outputs: " + differing);
+    }
+
+    @Test
+    void permute_ValueOutsideDomain_ThrowsIllegalArgument() {
+        FeistelPermutation permutation = new FeistelPermutation(1000, 42L);
+
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(1000));
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+        assertThrows(IllegalArgumentException.class, () -> permutation.inverse(1000));
+        assertThrows(IllegalArgumentException.class, () -> new FeistelPermutation(1, 42L));
+    }
+}